@@ -0,0 +1,83 @@
+package com.mindex.challenge.benchmark;
+
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.CompensationPage;
+import com.mindex.challenge.service.CompensationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compensation reads of an employee with a varying length of compensation history stored in the embedded Mongo server.
+ * readCurrent is served from cached timelines with timelineCache and by an indexed limit 1 query without it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompensationReadBenchmark {
+    private static final String EMPLOYEE_ID = Orgs.ROOT;
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Param({"10", "1000"})
+    public int history;
+
+    @Param({"true", "false"})
+    public boolean timelineCache;
+
+    private ConfigurableApplicationContext context;
+    private CompensationService compensationService;
+    private Date asOf;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = Orgs.start("challenge.compensation.timeline-cache.enabled=" + timelineCache);
+        compensationService = context.getBean(CompensationService.class);
+
+        List<Compensation> compensations = new ArrayList<>();
+        for (int i = 0; i < history; i++) {
+            compensations.add(new Compensation(EMPLOYEE_ID, new Date(i * DAY), 1000D + i));
+        }
+        context.getBean(MongoOperations.class).insert(compensations, Compensation.class);
+        asOf = new Date(history / 2 * DAY);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Compensation> read() {
+        return compensationService.read(EMPLOYEE_ID);
+    }
+
+    @Benchmark
+    public CompensationPage readPage() {
+        return compensationService.readPage(EMPLOYEE_ID, null, 100);
+    }
+
+    @Benchmark
+    public Compensation readCurrent() {
+        return compensationService.readCurrent(EMPLOYEE_ID, asOf);
+    }
+}
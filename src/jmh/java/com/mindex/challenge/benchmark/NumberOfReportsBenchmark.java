@@ -0,0 +1,85 @@
+package com.mindex.challenge.benchmark;
+
+import com.mindex.challenge.dao.impl.EmployeeStorage;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.graph.OrgChartIndex;
+import com.mindex.challenge.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EmployeeService.numberOfReports of the root of synthetic org charts stored in the embedded Mongo server.
+ * With orgIndex the count is served by the OrgChartIndex. Without it every invocation traverses the database through
+ * getNumberOfReports. The report count and direct reports caches are disabled in both cases, so the traversal reaches
+ * Mongo for every employee on every invocation.
+ * Sizes stop at 100k by default, as a 1M deep chain takes one query per level. Pass -p size=1000000 to include it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class NumberOfReportsBenchmark {
+    private static final int INSERT_BATCH_SIZE = 10000;
+
+    @Param({"deep", "wide", "diamond"})
+    public String shape;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean orgIndex;
+
+    @Param({"embedded", "ids"})
+    public String storage;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = Orgs.start(
+                "challenge.org-index.enabled=" + orgIndex,
+                "challenge.storage.direct-reports=" + storage,
+                "challenge.cache.report-counts.maximum-size=0",
+                "challenge.cache.direct-reports.maximum-weight=0");
+        employeeService = context.getBean(EmployeeService.class);
+
+        MongoOperations operations = context.getBean(MongoOperations.class);
+        List<Employee> employees = Orgs.employees(Orgs.directReports(shape, size));
+        for (int from = 0; from < employees.size(); from += INSERT_BATCH_SIZE) {
+            operations.insert(employees.subList(from, Math.min(from + INSERT_BATCH_SIZE, employees.size())), Employee.class);
+        }
+        // Rewrites the inserted documents to the configured storage layout, as done after a bulk import
+        context.getBean(EmployeeStorage.class).migrate();
+        context.getBean(OrgChartIndex.class).invalidate();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int numberOfReports() {
+        return employeeService.numberOfReports(Orgs.ROOT);
+    }
+}
@@ -0,0 +1,84 @@
+package com.mindex.challenge.benchmark;
+
+import com.mindex.challenge.dao.impl.HierarchyTraversal;
+import com.mindex.challenge.graph.OrgGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Traversal of in-memory org charts, without the database.
+ * orgGraphReports walks the int adjacency of OrgGraph as the OrgChartIndex does. hierarchyTraversal runs the breadth first
+ * engine behind getNumberOfReports over a map lookup, isolating its batching and visited set from Mongo.
+ * Report counts of OrgGraph are not recomputed here. See ReportCountsBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrgGraphBenchmark {
+
+    @Param({"deep", "wide", "diamond"})
+    public String shape;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private OrgGraph graph;
+    private HierarchyTraversal hierarchyTraversal;
+    private Function<List<String>, List<String>> lookup;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<List<String>> directReports = Orgs.directReports(shape, size);
+        graph = new OrgGraph();
+        Map<String, List<String>> reportsById = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            graph.loadDirectReports(Orgs.id(i), directReports.get(i));
+            reportsById.put(Orgs.id(i), directReports.get(i));
+        }
+
+        hierarchyTraversal = new HierarchyTraversal(0);
+        lookup = ids -> {
+            List<String> reportIds = new ArrayList<>();
+            for (String id : ids) {
+                reportIds.addAll(reportsById.get(id));
+            }
+            return reportIds;
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        hierarchyTraversal.shutdown();
+    }
+
+    @Benchmark
+    public int orgGraphReports() {
+        return graph.reports(Orgs.ROOT).size();
+    }
+
+    @Benchmark
+    public int hierarchyTraversal() {
+        return hierarchyTraversal.countReports(Orgs.ROOT, 16, lookup);
+    }
+}
@@ -0,0 +1,110 @@
+package com.mindex.challenge.benchmark;
+
+import com.mindex.challenge.ChallengeApplication;
+import com.mindex.challenge.data.Employee;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Synthetic org charts and application contexts shared by benchmarks
+ */
+final class Orgs {
+    static final String ROOT = id(0);
+
+    private Orgs() {
+    }
+
+    /**
+     * Gets employee id of the employee with ordinal i
+     */
+    static String id(int i) {
+        return "employee-" + i;
+    }
+
+    /**
+     * Gets direct report ids of every employee of an org chart, indexed by ordinal. Employee 0 is the root.
+     *
+     * @param shape deep for a single chain, wide for one manager of everyone else, diamond for layers of sqrt(size)
+     *              employees where each employee reports to two managers of the layer above
+     * @param size  Number of employees
+     */
+    static List<List<String>> directReports(String shape, int size) {
+        List<List<String>> directReports = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            directReports.add(new ArrayList<>());
+        }
+
+        switch (shape) {
+            case "deep":
+                for (int i = 0; i + 1 < size; i++) {
+                    directReports.get(i).add(id(i + 1));
+                }
+                break;
+            case "wide":
+                for (int i = 1; i < size; i++) {
+                    directReports.get(0).add(id(i));
+                }
+                break;
+            case "diamond":
+                int width = Math.max(2, (int) Math.sqrt(size));
+                for (int i = 1; i <= width && i < size; i++) {
+                    directReports.get(0).add(id(i));
+                }
+                for (int i = 1; i < size; i++) {
+                    int layerStart = 1 + ((i - 1) / width + 1) * width;
+                    int index = (i - 1) % width;
+                    for (int report : new int[]{layerStart + index, layerStart + (index + 1) % width}) {
+                        if (report < size) {
+                            directReports.get(i).add(id(report));
+                        }
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+        return directReports;
+    }
+
+    /**
+     * Gets employees of an org chart with direct reports as partial employees, as they are stored
+     */
+    static List<Employee> employees(List<List<String>> directReports) {
+        List<Employee> employees = new ArrayList<>(directReports.size());
+        for (int i = 0; i < directReports.size(); i++) {
+            Employee employee = new Employee();
+            employee.setEmployeeId(id(i));
+            employee.setFirstName("First" + i);
+            employee.setLastName("Last" + i);
+            employee.setPosition("Developer");
+            employee.setDepartment("Engineering");
+            List<Employee> reports = new ArrayList<>();
+            for (String reportId : directReports.get(i)) {
+                Employee report = new Employee();
+                report.setEmployeeId(reportId);
+                reports.add(report);
+            }
+            employee.setDirectReports(reports.isEmpty() ? Collections.emptyList() : reports);
+            employees.add(employee);
+        }
+        return employees;
+    }
+
+    /**
+     * Starts the application without a web server and with debug logging off
+     *
+     * @param properties Additional properties, e.g. challenge.org-index.enabled=false
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(ChallengeApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.com.mindex=INFO", "challenge.mongo.indexes.explain=false")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.mindex.challenge.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.ReportingStructure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and encoding CPU of response formats: JSON, Smile and CBOR, each with and without gzip.
+ * The tree payload is a reporting tree of size employees with a fan-out of 5, as written by /reportingStructure/tree.
+ * The compensations payload is a compensation history of size entries, as returned by /compensation/{id}.
+ * Encoded sizes are printed once per trial, as JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+    private static final int FAN_OUT = 5;
+
+    @Param({"tree", "compensations"})
+    public String payload;
+
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper objectMapper;
+    private Object value;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        switch (format) {
+            case "json":
+                objectMapper = Jackson2ObjectMapperBuilder.json().build();
+                break;
+            case "smile":
+                objectMapper = Jackson2ObjectMapperBuilder.smile().build();
+                break;
+            case "cbor":
+                objectMapper = Jackson2ObjectMapperBuilder.cbor().build();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        value = "tree".equals(payload) ? tree() : compensations();
+
+        System.out.printf("%n%s size=%d format=%s gzip=%s bytes=%d%n", payload, size, format, gzip, write().length);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(value);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(outputStream, value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private ReportingStructure tree() {
+        List<Employee> employees = Orgs.employees(Orgs.directReports("deep", size));
+        for (Employee employee : employees) {
+            employee.setDirectReports(new ArrayList<>());
+        }
+        for (int i = 1; i < size; i++) {
+            employees.get((i - 1) / FAN_OUT).getDirectReports().add(employees.get(i));
+        }
+        for (Employee employee : employees) {
+            if (employee.getDirectReports().isEmpty()) {
+                employee.setDirectReports(Collections.emptyList());
+            }
+        }
+
+        ReportingStructure reportingStructure = new ReportingStructure();
+        reportingStructure.setEmployee(employees.get(0));
+        reportingStructure.setNumberOfReports(size - 1);
+        return reportingStructure;
+    }
+
+    private List<Compensation> compensations() {
+        List<Compensation> compensations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            compensations.add(new Compensation(Orgs.ROOT, new Date(TimeUnit.DAYS.toMillis(i)), 50000D + i));
+        }
+        return compensations;
+    }
+}
@@ -0,0 +1,55 @@
+package com.mindex.challenge.benchmark;
+
+import com.mindex.challenge.graph.OrgGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputation of OrgGraph report counts, as done under the OrgChartIndex write lock on every load and after bulk imports.
+ * Deep and wide shapes are summed in one pass. Diamond layers, where every employee has two managers, are the worst
+ * case and are traversed from every employee, so sizes stop at 100000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ReportCountsBenchmark {
+
+    @Param({"deep", "wide", "diamond"})
+    public String shape;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private OrgGraph graph;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<List<String>> directReports = Orgs.directReports(shape, size);
+        graph = new OrgGraph();
+        for (int i = 0; i < size; i++) {
+            graph.loadDirectReports(Orgs.id(i), directReports.get(i));
+        }
+    }
+
+    @Benchmark
+    public int recomputeReportCounts() {
+        graph.recomputeReportCounts();
+        return graph.countReports(Orgs.ROOT);
+    }
+}
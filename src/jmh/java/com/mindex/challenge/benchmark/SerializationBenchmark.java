@@ -0,0 +1,70 @@
+package com.mindex.challenge.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.ReportingStructure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of API payloads with an ObjectMapper configured as Spring Boot configures the one of the
+ * controllers, for an employee with a varying number of direct reports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"0", "10", "1000"})
+    public int directReports;
+
+    private ObjectMapper objectMapper;
+    private Employee employee;
+    private ReportingStructure reportingStructure;
+    private byte[] employeeJson;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Employee> employees = Orgs.employees(Orgs.directReports("wide", directReports + 1));
+        employee = employees.get(0);
+
+        reportingStructure = new ReportingStructure();
+        reportingStructure.setEmployee(employee);
+        reportingStructure.setNumberOfReports(directReports);
+        employeeJson = objectMapper.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public byte[] writeEmployee() throws IOException {
+        return objectMapper.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public byte[] writeReportingStructure() throws IOException {
+        return objectMapper.writeValueAsBytes(reportingStructure);
+    }
+
+    @Benchmark
+    public Employee readEmployee() throws IOException {
+        return objectMapper.readValue(employeeJson, Employee.class);
+    }
+}
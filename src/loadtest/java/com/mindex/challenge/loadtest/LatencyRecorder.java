@@ -0,0 +1,83 @@
+package com.mindex.challenge.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records request latencies of a load run and reports throughput and percentiles
+ */
+public class LatencyRecorder {
+    private final long[] latencies;
+    private final AtomicInteger count = new AtomicInteger();
+    private long startNanos;
+    private long endNanos;
+
+    public LatencyRecorder(int capacity) {
+        this.latencies = new long[capacity];
+    }
+
+    /**
+     * Marks the start of the measured run
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of the measured run
+     */
+    public void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * Records latency of one request. Requests past capacity are not recorded.
+     *
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        int index = count.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = nanos;
+        }
+    }
+
+    /**
+     * Gets number of recorded requests
+     */
+    public int count() {
+        return Math.min(count.get(), latencies.length);
+    }
+
+    /**
+     * Gets requests per second over the measured run
+     */
+    public double throughput() {
+        return count() / ((endNanos - startNanos) / 1e9);
+    }
+
+    /**
+     * Gets latency percentile in milliseconds with the nearest rank method
+     *
+     * @param percentile Percentile in (0, 100]
+     */
+    public double percentileMillis(double percentile) {
+        long[] sorted = Arrays.copyOf(latencies, count());
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    /**
+     * Gets a one line summary of the run
+     *
+     * @param name Name of the run
+     */
+    public String summary(String name) {
+        return String.format("%-10s requests=%d throughput=%.1f/s p50=%.2fms p99=%.2fms",
+                name, count(), throughput(), percentileMillis(50), percentileMillis(99));
+    }
+}
@@ -0,0 +1,123 @@
+package com.mindex.challenge.loadtest;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.ChallengeApplication;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.ReportingStructure;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * End-to-end load driver for files written by OrgChartGenerator.
+ * The application is started in process on a random port with the embedded Mongo server and imports the files through
+ * BulkImportJob, unless --url targets an instance that already has them loaded. Each scenario then sends requests for
+ * random employees of the file with a fixed number in flight and prints throughput, p50 and p99 latency.
+ *
+ * Options, with defaults:
+ * --input=build/generated-org --requests=10000 --concurrency=64 --url= (empty to start the application in process)
+ * Any other --challenge.* option is passed to the in-process application, e.g. --challenge.org-index.enabled=false.
+ * Run with ./gradlew loadDriver --args='--requests=50000'.
+ */
+public class LoadDriver {
+
+    public static void main(String[] args) throws IOException {
+        Options options = new Options(args);
+        File input = new File(options.get("input", "build/generated-org"));
+        File employeesFile = new File(input, "employees.json");
+        File compensationsFile = new File(input, "compensations.json");
+        int requests = options.getInt("requests", 10000);
+        int concurrency = options.getInt("concurrency", 64);
+        String url = options.get("url", "");
+
+        List<String> ids = readIds(employeesFile);
+        System.out.printf("Read [%d] employee ids from [%s]%n", ids.size(), employeesFile);
+
+        ConfigurableApplicationContext context = null;
+        if (url.isEmpty()) {
+            List<String> properties = new ArrayList<>();
+            properties.add("server.port=0");
+            properties.add("logging.level.com.mindex=INFO");
+            properties.add("challenge.import.employees-file=" + employeesFile.getAbsolutePath());
+            properties.add("challenge.import.compensations-file=" + compensationsFile.getAbsolutePath());
+            for (String arg : args) {
+                if (arg.startsWith("--challenge.")) {
+                    properties.add(arg.substring(2));
+                }
+            }
+
+            long start = System.nanoTime();
+            context = new SpringApplicationBuilder(ChallengeApplication.class).properties(properties.toArray(new String[0])).run();
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            System.out.printf("Started and imported in [%d] ms%n", (System.nanoTime() - start) / 1_000_000);
+        }
+
+        try {
+            WebClient client = WebClient.builder().baseUrl(url)
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(64 * 1024 * 1024)).build();
+            List<String> summaries = new ArrayList<>();
+            summaries.add(scenario("employee", ids, requests, concurrency, id ->
+                    client.get().uri("/employee/{id}", id).retrieve().bodyToMono(Employee.class)));
+            summaries.add(scenario("reporting", ids, requests, concurrency, id ->
+                    client.get().uri("/employee/{id}/reportingStructure", id).retrieve().bodyToMono(ReportingStructure.class)));
+            summaries.add(scenario("compensation", ids, requests, concurrency, id ->
+                    client.get().uri("/compensation/{id}", id).retrieve().bodyToMono(Compensation[].class)));
+            summaries.add(scenario("create", ids, requests, concurrency, id ->
+                    client.post().uri("/employee").bodyValue(new Employee()).retrieve().bodyToMono(Employee.class)));
+            summaries.forEach(System.out::println);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Warms up, then sends requests for random employee ids and records their latency
+     *
+     * @return Summary of the measured run
+     */
+    private static String scenario(String name, List<String> ids, int requests, int concurrency, Function<String, Mono<?>> request) {
+        run(ids, Math.min(requests, 1000), concurrency, request, new LatencyRecorder(requests));
+
+        LatencyRecorder recorder = new LatencyRecorder(requests);
+        recorder.start();
+        run(ids, requests, concurrency, request, recorder);
+        recorder.stop();
+        return recorder.summary(name);
+    }
+
+    private static void run(List<String> ids, int requests, int concurrency, Function<String, Mono<?>> request, LatencyRecorder recorder) {
+        Flux.range(0, requests).flatMap(i -> {
+            String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return request.apply(id).doOnNext(response -> recorder.record(System.nanoTime() - start));
+            });
+        }, concurrency).blockLast();
+    }
+
+    /**
+     * Streams employee ids out of a JSON array of employees, without holding the employees in memory
+     */
+    private static List<String> readIds(File employeesFile) throws IOException {
+        List<String> ids = new ArrayList<>();
+        try (MappingIterator<Employee> employees = new ObjectMapper().readerFor(Employee.class).readValues(employeesFile)) {
+            while (employees.hasNext()) {
+                ids.add(employees.next().getEmployeeId());
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,198 @@
+package com.mindex.challenge.loadtest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates a synthetic org chart and its compensation history in the bootstrap format.
+ * The output is fully determined by the options, so the same seed always yields the same files.
+ * Employees are attached breadth first under a single root, each manager drawing its number of direct reports from the
+ * fan-out distribution, until depth is reached. A multi-manager-ratio share of employees additionally report to a random
+ * employee of a shallower level, which keeps the hierarchy acyclic.
+ *
+ * Writes employees.json, importable with challenge.import.employees-file or as employee_database.json, and
+ * compensations.json, importable with challenge.import.compensations-file.
+ *
+ * Options, with defaults:
+ * --employees=100000 --depth=8 --fan-out=6 --fan-out-distribution=geometric (fixed, uniform or geometric)
+ * --multi-manager-ratio=0.02 --compensation-history=3 --seed=42 --output=build/generated-org
+ * Run with ./gradlew generateOrg --args='--employees=1000000'.
+ */
+public class OrgChartGenerator {
+    private static final String[] FIRST_NAMES = {"John", "Paul", "George", "Ringo", "Pete", "Yoko", "Linda", "Cynthia", "Patti", "Maureen"};
+    private static final String[] LAST_NAMES = {"Lennon", "McCartney", "Harrison", "Starr", "Best", "Ono", "Eastman", "Powell", "Boyd", "Cox"};
+    private static final String[] DEPARTMENTS = {"Engineering", "Sales", "Finance", "Operations", "Marketing"};
+    private static final LocalDate LATEST_EFFECTIVE_DATE = LocalDate.of(2020, 1, 1);
+
+    private final int employees;
+    private final int depth;
+    private final double fanOut;
+    private final String fanOutDistribution;
+    private final double multiManagerRatio;
+    private final int compensationHistory;
+    private final long seed;
+
+    public OrgChartGenerator(Options options) {
+        this.employees = Math.max(1, options.getInt("employees", 100000));
+        this.depth = Math.max(1, options.getInt("depth", 8));
+        this.fanOut = Math.max(1, options.getDouble("fan-out", 6));
+        this.fanOutDistribution = options.get("fan-out-distribution", "geometric");
+        this.multiManagerRatio = options.getDouble("multi-manager-ratio", 0.02);
+        this.compensationHistory = Math.max(0, options.getInt("compensation-history", 3));
+        this.seed = options.getLong("seed", 42);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = new Options(args);
+        Path output = Paths.get(options.get("output", "build/generated-org"));
+        Files.createDirectories(output);
+
+        long start = System.nanoTime();
+        OrgChartGenerator generator = new OrgChartGenerator(options);
+        generator.write(output.resolve("employees.json"), output.resolve("compensations.json"));
+        System.out.printf("Generated [%d] employees in [%s] in [%d] ms%n",
+                generator.employees, output.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Generates the org chart and writes employees and compensations files
+     */
+    public void write(Path employeesFile, Path compensationsFile) throws IOException {
+        Random random = new Random(seed);
+        String[] ids = new String[employees];
+        for (int i = 0; i < employees; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+        }
+
+        int[] levels = new int[employees];
+        List<List<Integer>> directReports = hierarchy(random, levels);
+
+        JsonFactory factory = new JsonFactory();
+        try (JsonGenerator generator = factory.createGenerator(employeesFile.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (int i = 0; i < employees; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("employeeId", ids[i]);
+                generator.writeStringField("firstName", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                generator.writeStringField("lastName", LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                generator.writeStringField("position", position(levels[i], !directReports.get(i).isEmpty()));
+                generator.writeStringField("department", DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+                if (!directReports.get(i).isEmpty()) {
+                    generator.writeArrayFieldStart("directReports");
+                    for (int report : directReports.get(i)) {
+                        generator.writeStartObject();
+                        generator.writeStringField("employeeId", ids[report]);
+                        generator.writeEndObject();
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+
+        try (JsonGenerator generator = factory.createGenerator(compensationsFile.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (int i = 0; i < employees; i++) {
+                int entries = compensationHistory == 0 ? 0 : 1 + random.nextInt(2 * compensationHistory - 1);
+                // Deeper levels earn less. Every raise is 3% to 8%, walking back one year per entry.
+                double salary = 200000D / (1 + levels[i]) * (0.8 + 0.4 * random.nextDouble());
+                LocalDate effectiveDate = LATEST_EFFECTIVE_DATE.minusDays(random.nextInt(365));
+                for (int entry = 0; entry < entries; entry++) {
+                    generator.writeStartObject();
+                    generator.writeStringField("employeeId", ids[i]);
+                    generator.writeNumberField("salary", Math.round(salary));
+                    generator.writeStringField("effectiveDate", effectiveDate.toString());
+                    generator.writeEndObject();
+                    salary /= 1.03 + 0.05 * random.nextDouble();
+                    effectiveDate = effectiveDate.minusYears(1);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Gets direct reports of every employee by ordinal, filling levels with the depth of each employee. Employee 0 is the root.
+     */
+    private List<List<Integer>> hierarchy(Random random, int[] levels) {
+        List<List<Integer>> directReports = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            directReports.add(new ArrayList<>());
+        }
+
+        // Breadth first, so ordinals are assigned level by level and managers are always lower ordinals
+        int next = 1;
+        for (int manager = 0; manager < next && next < employees; manager++) {
+            if (levels[manager] >= depth) {
+                break;
+            }
+            int reports = Math.min(drawFanOut(random), employees - next);
+            for (int r = 0; r < reports; r++, next++) {
+                directReports.get(manager).add(next);
+                levels[next] = levels[manager] + 1;
+            }
+        }
+        // Employees at a level shallower than l are the ordinals below shallowerThan[l], as levels only grow with ordinals so far
+        int[] shallowerThan = new int[depth + 2];
+        for (int level = 0, ordinal = 0; level < shallowerThan.length; level++) {
+            while (ordinal < next && levels[ordinal] < level) {
+                ordinal++;
+            }
+            shallowerThan[level] = ordinal;
+        }
+
+        // Employees left once every level is full are spread over random managers above the last level
+        for (; next < employees; next++) {
+            int manager = random.nextInt(shallowerThan[depth]);
+            directReports.get(manager).add(next);
+            levels[next] = levels[manager] + 1;
+        }
+
+        for (int employee = 1; employee < employees; employee++) {
+            if (levels[employee] > 1 && random.nextDouble() < multiManagerRatio) {
+                // Managers are always shallower than their reports, so extra managers never form a cycle
+                int manager = random.nextInt(shallowerThan[levels[employee]]);
+                if (!directReports.get(manager).contains(employee)) {
+                    directReports.get(manager).add(employee);
+                }
+            }
+        }
+        return directReports;
+    }
+
+    private int drawFanOut(Random random) {
+        switch (fanOutDistribution) {
+            case "fixed":
+                return (int) Math.round(fanOut);
+            case "uniform":
+                return 1 + random.nextInt((int) Math.round(2 * fanOut - 1));
+            case "geometric":
+                if (fanOut <= 1) {
+                    return 1;
+                }
+                // Number of trials until success with p = 1 / fanOut, so the mean is fanOut and a few managers have large teams
+                return 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / fanOut));
+            default:
+                throw new IllegalArgumentException("Unknown fan-out distribution: " + fanOutDistribution);
+        }
+    }
+
+    private static String position(int level, boolean manager) {
+        if (level == 0) {
+            return "Chief Executive Officer";
+        }
+        return manager ? "Manager L" + level : "Developer L" + level;
+    }
+}
@@ -0,0 +1,102 @@
+package com.mindex.challenge.loadtest;
+
+import com.mindex.challenge.ChallengeApplication;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.ReportingStructure;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the blocking servlet stack with the reactive profile under concurrent reportingStructure requests.
+ * Each stack is started on a random port with the OrgChartIndex and the report count and direct reports caches disabled,
+ * so every request walks the hierarchy in the database. Only the blocking stack reads direct reports through the cache. A tree of employees is created through the API, then requests for random managers
+ * are sent with a fixed number in flight and throughput, p50 and p99 latency are printed per stack.
+ *
+ * Arguments: [employees] [requests] [concurrency], defaulting to 2000 5000 64. Run with ./gradlew loadTest.
+ */
+public class StackComparison {
+    private static final int FAN_OUT = 4;
+
+    public static void main(String[] args) {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        List<String> summaries = new ArrayList<>();
+        summaries.add(run("servlet", employees, requests, concurrency, new SpringApplicationBuilder()));
+        summaries.add(run("reactive", employees, requests, concurrency, new SpringApplicationBuilder().profiles("reactive")));
+        summaries.forEach(System.out::println);
+    }
+
+    /**
+     * Starts the application configured by builder, loads it and stops it
+     *
+     * @return Summary of the measured run
+     */
+    static String run(String name, int employees, int requests, int concurrency, SpringApplicationBuilder builder) {
+        builder.sources(ChallengeApplication.class).properties(
+                "server.port=0",
+                "challenge.org-index.enabled=false",
+                "challenge.cache.report-counts.maximum-size=0",
+                "challenge.cache.direct-reports.maximum-weight=0",
+                "challenge.mongo.indexes.explain=false");
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            WebClient client = WebClient.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            List<String> ids = createTree(client, employees);
+            // Managers only, so every request traverses at least one level
+            int managers = Math.max(1, (ids.size() - 1) / FAN_OUT);
+
+            // Warm up connections and JIT before measuring
+            load(client, ids, managers, Math.min(requests, 1000), concurrency, new LatencyRecorder(requests));
+
+            LatencyRecorder recorder = new LatencyRecorder(requests);
+            recorder.start();
+            load(client, ids, managers, requests, concurrency, recorder);
+            recorder.stop();
+            return recorder.summary(name);
+        }
+    }
+
+    /**
+     * Creates employees and links them as a tree where employee i manages employees FAN_OUT * i + 1 to FAN_OUT * i + FAN_OUT
+     */
+    private static List<String> createTree(WebClient client, int employees) {
+        List<Employee> created = Flux.range(0, employees)
+                .concatMap(i -> client.post().uri("/employee").bodyValue(new Employee()).retrieve().bodyToMono(Employee.class))
+                .collectList().block();
+
+        List<String> ids = new ArrayList<>();
+        created.forEach(employee -> ids.add(employee.getEmployeeId()));
+        Flux.range(0, employees).filter(i -> FAN_OUT * i + 1 < employees).concatMap(i -> {
+            Employee manager = created.get(i);
+            List<Employee> directReports = new ArrayList<>();
+            for (int child = FAN_OUT * i + 1; child <= FAN_OUT * i + FAN_OUT && child < employees; child++) {
+                directReports.add(created.get(child));
+            }
+            manager.setDirectReports(directReports);
+            return client.put().uri("/employee/{id}", manager.getEmployeeId()).bodyValue(manager)
+                    .retrieve().bodyToMono(Employee.class);
+        }).blockLast();
+        return ids;
+    }
+
+    private static void load(WebClient client, List<String> ids, int managers, int requests, int concurrency, LatencyRecorder recorder) {
+        Flux.range(0, requests).flatMap(i -> {
+            String id = ids.get(ThreadLocalRandom.current().nextInt(managers));
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return client.get().uri("/employee/{id}/reportingStructure", id).retrieve()
+                        .bodyToMono(ReportingStructure.class)
+                        .doOnNext(reportingStructure -> recorder.record(System.nanoTime() - start));
+            });
+        }, concurrency).blockLast();
+    }
+}
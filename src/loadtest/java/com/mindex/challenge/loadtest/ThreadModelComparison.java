@@ -0,0 +1,31 @@
+package com.mindex.challenge.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the Tomcat thread pool with virtual threads under concurrent reportingStructure requests.
+ * Both runs use the servlet stack with the same setup as StackComparison, including its disabled report count and direct
+ * reports caches, so requests block on Mongo rather than being served from memory. The pooled run keeps server.tomcat.max-threads
+ * at its default of 200, so concurrency above it queues in Tomcat, while the virtual thread run starts a thread per request.
+ * Requires JDK 21 or later.
+ *
+ * Arguments: [employees] [requests] [concurrency], defaulting to 2000 5000 512. Run with ./gradlew threadModelLoadTest.
+ */
+public class ThreadModelComparison {
+
+    public static void main(String[] args) {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 512;
+
+        List<String> summaries = new ArrayList<>();
+        summaries.add(StackComparison.run("pooled", employees, requests, concurrency,
+                new SpringApplicationBuilder().properties("challenge.virtual-threads.enabled=false")));
+        summaries.add(StackComparison.run("virtual", employees, requests, concurrency,
+                new SpringApplicationBuilder().properties("challenge.virtual-threads.enabled=true")));
+        summaries.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mindex.challenge;
+
+import com.mindex.challenge.data.BulkImportResult;
+import com.mindex.challenge.service.BulkImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Job importing HR export files on startup.
+ * Files are JSON arrays of Employee and Compensation objects, configured with challenge.import.employees-file and
+ * challenge.import.compensations-file. Nothing is imported when they are not set.
+ */
+@Component
+public class BulkImportJob implements ApplicationRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(BulkImportJob.class);
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Value("${challenge.import.employees-file:}")
+    private String employeesFile;
+
+    @Value("${challenge.import.compensations-file:}")
+    private String compensationsFile;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!employeesFile.isEmpty()) {
+            try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(Paths.get(employeesFile)))) {
+                log(employeesFile, bulkImportService.importEmployees(inputStream));
+            }
+        }
+        if (!compensationsFile.isEmpty()) {
+            try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(Paths.get(compensationsFile)))) {
+                log(compensationsFile, bulkImportService.importCompensations(inputStream));
+            }
+        }
+    }
+
+    private static void log(String file, BulkImportResult result) {
+        LOG.info("Imported [{}] of [{}] records from [{}]. [{}] records failed{}.", result.getInserted(), result.getReceived(),
+                file, result.getFailed(), result.isAborted() ? " and the import was aborted" : "");
+        result.getErrors().forEach(error ->
+                LOG.warn("Record [{}] with employee id [{}] was rejected. {}", error.getIndex(), error.getEmployeeId(), error.getMessage()));
+    }
+}
@@ -1,39 +1,125 @@
 package com.mindex.challenge;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.BulkImportResult;
 import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.graph.OrgChartIndex;
+import com.mindex.challenge.service.BulkImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
 
+/**
+ * Loads seed employees on startup.
+ * The seed file is streamed through BulkImportService and inserted in batches, so it never has to fit in memory.
+ * By default it is loaded before the application starts. With challenge.bootstrap.async it is loaded in the background
+ * once the application is ready, and the dataBootstrap health indicator reports OUT_OF_SERVICE until loading is done.
+ * Nothing is loaded when the employee collection already has documents, e.g. after a restart on a persistent backend.
+ * The org chart index is then restored from its snapshot file, if one was written on the previous shutdown.
+ * Indexes are provisioned by IndexProvisioner before anything is loaded.
+ */
 @Component
-public class DataBootstrap {
+@DependsOn("indexProvisioner")
+public class DataBootstrap implements HealthIndicator {
+    private static final Logger LOG = LoggerFactory.getLogger(DataBootstrap.class);
+
     private static final String DATASTORE_LOCATION = "/static/employee_database.json";
 
     @Autowired
-    private EmployeeRepository employeeRepository;
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private MongoOperations mongoOperations;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private OrgChartIndex orgChartIndex;
+
+    @Value("${challenge.bootstrap.async:false}")
+    private boolean async;
+
+    private volatile boolean ready;
+    private volatile String failure;
 
     @PostConstruct
     public void init() {
-        InputStream inputStream = this.getClass().getResourceAsStream(DATASTORE_LOCATION);
+        if (!async) {
+            load();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (async) {
+            Thread thread = new Thread(this::loadInBackground, "data-bootstrap");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Gets whether seed employees have been loaded
+     *
+     * @return True once loading is done
+     */
+    public boolean isReady() {
+        return ready;
+    }
 
-        Employee[] employees = null;
+    @Override
+    public Health health() {
+        if (ready) {
+            return Health.up().build();
+        }
+        if (failure != null) {
+            return Health.down().withDetail("error", failure).build();
+        }
+        return Health.outOfService().withDetail("loading", DATASTORE_LOCATION).build();
+    }
 
+    private void loadInBackground() {
         try {
-            employees = objectMapper.readValue(inputStream, Employee[].class);
+            load();
+        } catch (RuntimeException e) {
+            LOG.error("Failed to load seed employees", e);
+            failure = e.getMessage();
+        }
+    }
+
+    private void load() {
+        if (mongoOperations.exists(new Query(), Employee.class)) {
+            LOG.debug("Employees already exist, skipping seed employees from [{}]", DATASTORE_LOCATION);
+            orgChartIndex.restoreSnapshot();
+            ready = true;
+            return;
+        }
+
+        LOG.debug("Loading seed employees from [{}]", DATASTORE_LOCATION);
+
+        BulkImportResult result;
+        try (InputStream inputStream = this.getClass().getResourceAsStream(DATASTORE_LOCATION)) {
+            result = bulkImportService.importEmployees(inputStream);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
 
-        for (Employee employee : employees) {
-            employeeRepository.insert(employee);
+        if (result.getFailed() > 0) {
+            throw new IllegalStateException("Failed to load [" + result.getFailed() + "] of [" + result.getReceived()
+                    + "] seed employees. First error: " + result.getErrors().get(0).getMessage());
         }
+
+        LOG.debug("Loaded [{}] seed employees", result.getInserted());
+        ready = true;
     }
 }
@@ -0,0 +1,99 @@
+package com.mindex.challenge.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mindex.challenge.data.CompensationTimeline;
+import com.mindex.challenge.data.Employee;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of application caches.
+ * Caches are bounded Caffeine caches (W-TinyLFU eviction) weighted by the number of direct reports or compensations held
+ * by an entry, so managers of large teams and long compensation histories take proportionally more of the budget.
+ * Report counts are keyed by the reporting structure version of the employee, so they can be kept for a long time, and
+ * direct reports by the version of the employee. Statistics are recorded and
+ * published by actuator as cache.gets (hit/miss), cache.puts and cache.evictions metrics.
+ */
+@Configuration
+public class CacheConfig {
+    public static final String EMPLOYEES = "employees";
+    public static final String DIRECT_REPORTS = "directReports";
+    public static final String REPORT_COUNTS = "reportCounts";
+    public static final String COMPENSATION_TIMELINES = "compensationTimelines";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${challenge.cache.employees.maximum-weight:100000}") long employeesMaximumWeight,
+                                     @Value("${challenge.cache.employees.expire-after-write:10m}") Duration employeesExpireAfterWrite,
+                                     @Value("${challenge.cache.direct-reports.maximum-weight:1000000}") long directReportsMaximumWeight,
+                                     @Value("${challenge.cache.direct-reports.expire-after-write:10m}") Duration directReportsExpireAfterWrite,
+                                     @Value("${challenge.cache.report-counts.maximum-size:100000}") long reportCountsMaximumSize,
+                                     @Value("${challenge.cache.report-counts.expire-after-write:24h}") Duration reportCountsExpireAfterWrite,
+                                     @Value("${challenge.cache.compensation-timelines.maximum-weight:1000000}") long compensationTimelinesMaximumWeight,
+                                     @Value("${challenge.cache.compensation-timelines.expire-after-write:1h}") Duration compensationTimelinesExpireAfterWrite) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(Arrays.asList(
+                new CaffeineCache(EMPLOYEES, Caffeine.newBuilder()
+                        .maximumWeight(employeesMaximumWeight)
+                        .weigher((Object id, Object employee) -> 1 + size(((Employee) employee).getDirectReports()))
+                        .expireAfterWrite(employeesExpireAfterWrite.toNanos(), TimeUnit.NANOSECONDS)
+                        .recordStats()
+                        .build()),
+                new CaffeineCache(DIRECT_REPORTS, Caffeine.newBuilder()
+                        .maximumWeight(directReportsMaximumWeight)
+                        .weigher((Object id, Object directReportIds) -> 1 + size((List<?>) directReportIds))
+                        .expireAfterWrite(directReportsExpireAfterWrite.toNanos(), TimeUnit.NANOSECONDS)
+                        .recordStats()
+                        .build()),
+                new CaffeineCache(REPORT_COUNTS, Caffeine.newBuilder()
+                        .maximumSize(reportCountsMaximumSize)
+                        .expireAfterWrite(reportCountsExpireAfterWrite.toNanos(), TimeUnit.NANOSECONDS)
+                        .recordStats()
+                        .build()),
+                new CaffeineCache(COMPENSATION_TIMELINES, Caffeine.newBuilder()
+                        .maximumWeight(compensationTimelinesMaximumWeight)
+                        .weigher((Object id, Object timeline) -> 1 + ((CompensationTimeline) timeline).size())
+                        .expireAfterWrite(compensationTimelinesExpireAfterWrite.toNanos(), TimeUnit.NANOSECONDS)
+                        .recordStats()
+                        .build())));
+        return cacheManager;
+    }
+
+    /**
+     * Gets the key of a cached report count.
+     * The version is bumped after every change below the employee, so a count computed concurrently with a change is
+     * stored under the previous version and never read again. Entries of previous versions are left to size eviction.
+     *
+     * @param employeeId Employee id
+     * @param version    Reporting structure version of the employee, taken before the count is computed
+     * @return Cache key
+     */
+    public static String reportCountKey(String employeeId, String version) {
+        return employeeId + ":" + version;
+    }
+
+    /**
+     * Gets the key of cached direct report ids.
+     * The employee version is bumped after every update of the employee, so direct reports read from the database before
+     * an update are stored under the previous version and never read again, even when stored after the update.
+     *
+     * @param employeeId Employee id
+     * @param version    Version of the employee, taken before its direct reports are read from the database
+     * @return Cache key
+     */
+    public static String directReportsKey(String employeeId, String version) {
+        return employeeId + ":" + version;
+    }
+
+    private static int size(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+}
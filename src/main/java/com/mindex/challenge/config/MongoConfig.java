@@ -1,20 +1,64 @@
 package com.mindex.challenge.config;
 
 import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.dao.impl.TimedMongoRepositoryFactoryBean;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoBackend;
 import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.h2.H2Backend;
 import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.SimpleMongoClientDbFactory;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
-@EnableMongoRepositories(basePackageClasses = EmployeeRepository.class)
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Mongo clients and, unless an external database is used, the embedded Mongo server they connect to.
+ * challenge.mongo.backend selects where data lives:
+ * memory keeps it on the heap and loses it on restart, h2 keeps it in an MVStore file at challenge.mongo.h2.file with only
+ * a bounded page cache on the heap, and external connects to challenge.mongo.uri without starting an embedded server.
+ */
+@EnableMongoRepositories(basePackageClasses = EmployeeRepository.class, repositoryFactoryBeanClass = TimedMongoRepositoryFactoryBean.class)
 @Configuration
 public class MongoConfig{
+    private static final Logger LOG = LoggerFactory.getLogger(MongoConfig.class);
+
+    public enum Backend {
+        MEMORY, H2, EXTERNAL
+    }
+
+    @Value("${challenge.mongo.backend:memory}")
+    private Backend backend;
+
+    @Value("${challenge.mongo.h2.file:data/challenge.mv}")
+    private String h2File;
+
+    @Value("${challenge.mongo.uri:mongodb://localhost:27017}")
+    private String uri;
+
+    @Value("${challenge.mongo.database:test}")
+    private String database;
+
     @Bean
     public MongoTemplate mongoTemplate(MongoClient mongoClient) {
         return new MongoTemplate(mongoDbFactory(mongoClient));
@@ -22,19 +66,61 @@ public class MongoConfig{
 
     @Bean
     public MongoDbFactory mongoDbFactory(MongoClient mongoClient) {
-        return new SimpleMongoClientDbFactory(mongoClient, "test");
+        return new SimpleMongoClientDbFactory(mongoClient, database);
     }
 
     @Bean(destroyMethod="shutdown")
+    @ConditionalOnExpression("'${challenge.mongo.backend:memory}'.toLowerCase() != 'external'")
     public MongoServer mongoServer() {
-        MongoServer mongoServer = new MongoServer(new MemoryBackend());
+        MongoServer mongoServer = new MongoServer(mongoBackend());
         mongoServer.bind();
         return mongoServer;
     }
 
     @Bean(destroyMethod="close")
-    public MongoClient mongoClient() {
-        return MongoClients.create("mongodb:/" + mongoServer().getLocalAddress());
+    public MongoClient mongoClient(MeterRegistry meterRegistry, ObjectProvider<MongoServer> mongoServer) {
+        return MongoClients.create(mongoClientSettings(meterRegistry, mongoServer));
+    }
+
+    /**
+     * Non-blocking client of the same server, used by the services of the reactive profile
+     */
+    @Bean(destroyMethod="close")
+    public com.mongodb.reactivestreams.client.MongoClient reactiveMongoClient(MeterRegistry meterRegistry,
+                                                                              ObjectProvider<MongoServer> mongoServer) {
+        return com.mongodb.reactivestreams.client.MongoClients.create(mongoClientSettings(meterRegistry, mongoServer));
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(com.mongodb.reactivestreams.client.MongoClient reactiveMongoClient) {
+        return new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient, database));
+    }
+
+    /**
+     * Settings of clients of the embedded server or of the external database. Every command is timed in the
+     * mongodb.driver.commands metric, tagged with command and collection.
+     */
+    private MongoClientSettings mongoClientSettings(MeterRegistry meterRegistry, ObjectProvider<MongoServer> mongoServer) {
+        String connectionString = backend == Backend.EXTERNAL ? uri : "mongodb:/" + mongoServer.getObject().getLocalAddress();
+        return MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(connectionString))
+                .addCommandListener(new MongoMetricsCommandListener(meterRegistry))
+                .build();
+    }
+
+    private MongoBackend mongoBackend() {
+        if (backend != Backend.H2) {
+            return new MemoryBackend();
+        }
+
+        Path file = Paths.get(h2File).toAbsolutePath();
+        try {
+            Files.createDirectories(file.getParent());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create directory of " + file, e);
+        }
+        LOG.debug("Storing embedded Mongo data in [{}]", file);
+        return new H2Backend(file.toString());
     }
 }
 
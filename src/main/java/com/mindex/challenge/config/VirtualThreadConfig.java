@@ -0,0 +1,41 @@
+package com.mindex.challenge.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs Tomcat request handling on virtual threads when challenge.virtual-threads.enabled is set.
+ * Each request gets its own virtual thread, so requests blocked on Mongo no longer hold a platform thread and concurrency
+ * is no longer capped by server.tomcat.max-threads. It is then bounded by server.tomcat.max-connections and the Mongo
+ * connection pool instead.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty("challenge.virtual-threads.enabled")
+public class VirtualThreadConfig {
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("http-virtual-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            LOG.debug("Running Tomcat request handling on virtual threads");
+            protocolHandler.setExecutor(executor);
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,55 @@
+package com.mindex.challenge.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads of JDK 21 and later.
+ * The build targets Java 8, so the virtual thread API is looked up reflectively and only used when
+ * challenge.virtual-threads.enabled is set on a runtime that provides it.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Gets whether the running JDK provides virtual threads
+     *
+     * @return True on JDK 21 and later
+     */
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for every task
+     *
+     * @param namePrefix Prefix of thread names, followed by a sequence number
+     * @return Executor of virtual threads. It must be shut down by the caller.
+     * @throws IllegalStateException if the running JDK does not provide virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads require JDK 21 or later. Running on "
+                    + System.getProperty("java.version") + ". Unset challenge.virtual-threads.enabled.");
+        }
+
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method name = Class.forName("java.lang.Thread$Builder$OfVirtual").getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+}
@@ -1,34 +1,142 @@
 package com.mindex.challenge.controller;
 
+import com.mindex.challenge.data.BulkImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.CompensationPage;
+import com.mindex.challenge.data.CompensationRollup;
+import com.mindex.challenge.service.BulkImportService;
 import com.mindex.challenge.service.CompensationService;
+import com.mindex.challenge.service.VersionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive")
 public class CompensationController {
     private static final Logger LOG = LoggerFactory.getLogger(CompensationController.class);
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     @Autowired
     private CompensationService compensationService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private VersionService versionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
-     * Endpoint for reading Compensation data for employee id
+     * Endpoint for reading Compensation data for employee id.
+     * Responses carry a weak ETag of the compensation version of the employee. Requests whose If-None-Match still
+     * matches it get 304 Not Modified without reading compensations.
      * @param id Employee id
-     * @return List of Compensations associated with employee id
+     * @param request Request, checked for If-None-Match
+     * @return List of Compensations associated with employee id, or no body if not modified
      */
     @GetMapping("/compensation/{id}")
     @CrossOrigin(origins = "http://localhost:3000") // Added to support call from sample UI app. This will be removed or moved to an app level config.
-    public List<Compensation> read(@PathVariable String id) {
+    public List<Compensation> read(@PathVariable String id, WebRequest request) {
         LOG.debug("Received compensation read request for employee id [{}]", id);
 
+        if (request.checkNotModified(versionService.compensationETag(id))) {
+            return null;
+        }
         return compensationService.read(id);
     }
 
+    /**
+     * Endpoint for reading one page of Compensation data for employee id, oldest effective date first.
+     * Pages are keyset paginated with an opaque cursor, so deep pages are as cheap as the first one.
+     * @param id Employee id
+     * @param cursor nextCursor of the previous page. The first page is returned if not set.
+     * @param size Maximum number of Compensations in the page
+     * @return Page of Compensations with the cursor of the next page
+     */
+    @GetMapping("/compensation/{id}/page")
+    @CrossOrigin(origins = "http://localhost:3000") // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public CompensationPage readPage(@PathVariable String id,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "100") int size) {
+        LOG.debug("Received compensation page read request for employee id [{}] with cursor [{}]", id, cursor);
+
+        return compensationService.readPage(id, cursor, size);
+    }
+
+    /**
+     * Endpoint for streaming all Compensation data for employee id as newline delimited JSON, oldest effective date first.
+     * Compensations are written as they are read from a database cursor, so memory use does not grow with the history.
+     * @param id Employee id
+     * @return One Compensation JSON object per line
+     */
+    @GetMapping(value = "/compensation/{id}/stream", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody stream(@PathVariable String id) {
+        LOG.debug("Received compensation stream request for employee id [{}]", id);
+
+        ObjectWriter writer = objectMapper.writerFor(Compensation.class);
+        return outputStream -> {
+            try (Stream<Compensation> compensations = compensationService.stream(id)) {
+                Iterator<Compensation> iterator = compensations.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(writer.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+            }
+        };
+    }
+
+    /**
+     * Endpoint for reading the Compensation in effect for employee id on a date.
+     * Compensations effective at any time on asOf, in UTC, are in effect on asOf.
+     * @param id Employee id
+     * @param asOf ISO date, e.g. 2020-01-12. Defaults to today.
+     * @return Compensation with the latest effective date not after asOf
+     */
+    @GetMapping("/compensation/{id}/current")
+    @CrossOrigin(origins = "http://localhost:3000") // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public Compensation readCurrent(@PathVariable String id,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        LOG.debug("Received current compensation read request for employee id [{}] as of [{}]", id, asOf);
+
+        return compensationService.readCurrent(id, endOfDay(asOf));
+    }
+
+    /**
+     * Endpoint for reading current salary statistics over all reports under employee id
+     * @param id Employee id
+     * @param asOf ISO date, e.g. 2020-01-12. Defaults to today.
+     * @return Total, mean and percentiles of salaries in effect on asOf
+     */
+    @GetMapping("/employee/{id}/compensationRollup")
+    @CrossOrigin(origins = "http://localhost:3000") // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public CompensationRollup rollup(@PathVariable String id,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        LOG.debug("Received compensation rollup request for employee id [{}] as of [{}]", id, asOf);
+
+        return compensationService.rollup(id, endOfDay(asOf));
+    }
+
     /**
      * Endpoint for creating Compensation data
      * @param compensation Compensation object
@@ -40,4 +148,27 @@ public class CompensationController {
 
         return compensationService.create(compensation);
     }
+
+    /**
+     * Endpoint for importing a JSON array of Compensation data.
+     * The request body is streamed and inserted in batches. Rejected records are reported without aborting the import.
+     * @param body JSON array of Compensation objects
+     * @return Import result with per-record errors
+     */
+    @PostMapping(value = "/compensation/_import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResult importCompensations(InputStream body) throws IOException {
+        LOG.debug("Received compensation import request");
+
+        return bulkImportService.importCompensations(body);
+    }
+
+    /**
+     * Gets last instant of a date in UTC, so compensations effective at any time on that date are in effect
+     * @param date Date. Defaults to today.
+     * @return End of day
+     */
+    static Date endOfDay(LocalDate date) {
+        LocalDate day = date == null ? LocalDate.now(ZoneOffset.UTC) : date;
+        return new Date(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - 1);
+    }
 }
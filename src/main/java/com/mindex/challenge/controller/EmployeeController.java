@@ -1,21 +1,51 @@
 package com.mindex.challenge.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mindex.challenge.data.BulkImportResult;
 import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeeBatchResult;
+import com.mindex.challenge.data.ManagementChain;
 import com.mindex.challenge.data.ReportingStructure;
+import com.mindex.challenge.service.BulkImportService;
 import com.mindex.challenge.service.EmployeeService;
+import com.mindex.challenge.service.VersionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 public class EmployeeController {
     private static final Logger LOG = LoggerFactory.getLogger(EmployeeController.class);
 
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private VersionService versionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/employee")
     public Employee create(@RequestBody Employee employee) {
         LOG.debug("Received employee create request for [{}]", employee);
@@ -23,25 +53,69 @@ public class EmployeeController {
         return employeeService.create(employee);
     }
 
+    /**
+     * Endpoint for importing a JSON array of employees.
+     * The request body is streamed and inserted in batches. Rejected records are reported without aborting the import.
+     *
+     * @param body JSON array of Employee objects
+     * @return Import result with per-record errors
+     */
+    @PostMapping(value = "/employee/_import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResult importEmployees(InputStream body) throws IOException {
+        LOG.debug("Received employee import request");
+
+        return bulkImportService.importEmployees(body);
+    }
+
+    /**
+     * Endpoint to get employee id. Responses carry a weak ETag of the employee version, and requests whose If-None-Match
+     * still matches it get 304 Not Modified. The employee is read before the check, so unknown ids fail without an ETag
+     * that a later employee with the same id could match.
+     *
+     * @param id      Employee id
+     * @param request Request, checked for If-None-Match
+     * @return Employee object, or no body if not modified
+     */
     @GetMapping("/employee/{id}")
     @CrossOrigin(origins = "http://localhost:3000")
     // Added to support call from sample UI app. This will be removed or moved to an app level config.
-    public Employee read(@PathVariable String id) {
+    public Employee read(@PathVariable String id, WebRequest request) {
         LOG.debug("Received employee read request for id [{}]", id);
 
-        return employeeService.read(id);
+        String eTag = versionService.employeeETag(id);
+        Employee employee = employeeService.read(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return employee;
+    }
+
+    /**
+     * Endpoint for reading a batch of employees with one request.
+     * Employees are served from the cache or fetched with a single query. Batches with a null id or with more ids than
+     * challenge.employee.batch.max-size are rejected with 400 Bad Request.
+     *
+     * @param ids Employee ids
+     * @return Result for every id in request order. Employees that do not exist are marked as not found.
+     */
+    @PostMapping("/employee/_batch")
+    @CrossOrigin(origins = "http://localhost:3000")
+    // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public List<EmployeeBatchResult> readBatch(@RequestBody List<String> ids) {
+        LOG.debug("Received employee batch read request for [{}] ids", ids.size());
+
+        return employeeService.read(ids);
     }
 
     /**
      * Endpoint for updating Employee with id.
-     * Invoking this endpoint evicts directReports cache with key #id set on EmployeeRepositoryCustomImpl#queryDirectReports
+     * Cached employee and direct reports with key #id are invalidated by EmployeeService#update
      *
      * @param id       Employee id
      * @param employee Employee object
      * @return Updated Employee object
      */
     @PutMapping("/employee/{id}")
-    @CacheEvict(value = "directReports", key = "#id")
     public Employee update(@PathVariable String id, @RequestBody Employee employee) {
         LOG.debug("Received employee create request for id [{}] and employee [{}]", id, employee);
 
@@ -50,18 +124,27 @@ public class EmployeeController {
     }
 
     /**
-     * Endpoint to get ReportingStructure of employee id
+     * Endpoint to get ReportingStructure of employee id.
+     * Responses carry a weak ETag of the reporting structure version, which changes with the employee and with any
+     * change below it. Requests whose If-None-Match still matches it get 304 Not Modified without any traversal.
+     * As in read, unknown ids fail before the check and carry no ETag.
      *
-     * @param id Employee id
-     * @return Number of reports
+     * @param id      Employee id
+     * @param request Request, checked for If-None-Match
+     * @return Number of reports, or no body if not modified
      */
     @GetMapping("/employee/{id}/reportingStructure")
     @CrossOrigin(origins = "http://localhost:3000")
     // Added to support call from sample UI app. This will be removed or moved to an app level config.
-    public ReportingStructure reportingStructure(@PathVariable String id) {
+    public ReportingStructure reportingStructure(@PathVariable String id, WebRequest request) {
         LOG.debug("Received reporting structure request for id [{}]", id);
 
+        String eTag = versionService.reportingStructureETag(id);
         Employee employee = employeeService.read(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
         Integer numberOfReports = employeeService.numberOfReports(id);
 
         ReportingStructure reportingStructure = new ReportingStructure();
@@ -69,4 +152,76 @@ public class EmployeeController {
         reportingStructure.setNumberOfReports(numberOfReports);
         return reportingStructure;
     }
+
+    /**
+     * Endpoint to get everyone above employee id up to the top of the hierarchy
+     *
+     * @param id Employee id
+     * @return Employee and every management path, nearest manager first
+     */
+    @GetMapping("/employee/{id}/managementChain")
+    @CrossOrigin(origins = "http://localhost:3000")
+    // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public ManagementChain managementChain(@PathVariable String id) {
+        LOG.debug("Received management chain request for id [{}]", id);
+
+        return employeeService.managementChain(id);
+    }
+
+    /**
+     * Endpoint to get the full reporting tree of employee id, with each directReports entry filled in.
+     * The tree is streamed while it is traversed, so the response is never held in memory. The traversal only keeps the
+     * path to the current employee and the ids of expanded employees. See EmployeeServiceImpl#traverseReportingTree.
+     * Employees reporting to multiple managers are expanded once and written without their reports afterwards.
+     *
+     * @param id       Employee id
+     * @param maxDepth Maximum depth of written reports. Direct reports are at depth 1. Unlimited if not set.
+     * @param fields   Employee fields to write, among firstName, lastName, position and department. All fields if not set.
+     * @return ReportingStructure JSON whose employee contains the nested reports
+     */
+    @GetMapping(value = "/employee/{id}/reportingStructure/tree", produces = MediaType.APPLICATION_JSON_VALUE)
+    @CrossOrigin(origins = "http://localhost:3000")
+    // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public StreamingResponseBody reportingTree(@PathVariable String id,
+                                               @RequestParam(required = false) Integer maxDepth,
+                                               @RequestParam(required = false) Set<String> fields) {
+        LOG.debug("Received reporting tree request for id [{}] with max depth [{}] and fields [{}]", id, maxDepth, fields);
+
+        return reportingTree(id, maxDepth, fields, objectMapper.getFactory());
+    }
+
+    /**
+     * Endpoint to get the full reporting tree of employee id encoded as Smile, the binary form of JSON.
+     * Same as the JSON variant, selected with Accept: application/x-jackson-smile.
+     *
+     * @param id       Employee id
+     * @param maxDepth Maximum depth of written reports. Direct reports are at depth 1. Unlimited if not set.
+     * @param fields   Employee fields to write, among firstName, lastName, position and department. All fields if not set.
+     * @return ReportingStructure Smile whose employee contains the nested reports
+     */
+    @GetMapping(value = "/employee/{id}/reportingStructure/tree", produces = APPLICATION_SMILE_VALUE)
+    public StreamingResponseBody reportingTreeSmile(@PathVariable String id,
+                                                    @RequestParam(required = false) Integer maxDepth,
+                                                    @RequestParam(required = false) Set<String> fields) {
+        LOG.debug("Received Smile reporting tree request for id [{}] with max depth [{}] and fields [{}]", id, maxDepth, fields);
+
+        return reportingTree(id, maxDepth, fields, SMILE_FACTORY);
+    }
+
+    private StreamingResponseBody reportingTree(String id, Integer maxDepth, Set<String> fields, JsonFactory factory) {
+        // Resolved before streaming starts, so a missing employee is still reported with an error status
+        employeeService.read(id);
+        Integer numberOfReports = employeeService.numberOfReports(id);
+
+        return outputStream -> {
+            try (JsonGenerator generator = factory.createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeNumberField("numberOfReports", numberOfReports);
+                generator.writeFieldName("employee");
+                employeeService.traverseReportingTree(id, maxDepth == null ? Integer.MAX_VALUE : maxDepth, fields,
+                        new ReportingTreeJsonWriter(generator, fields));
+                generator.writeEndObject();
+            }
+        };
+    }
 }
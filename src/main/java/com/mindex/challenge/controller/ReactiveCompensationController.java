@@ -0,0 +1,76 @@
+package com.mindex.challenge.controller;
+
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.service.ReactiveCompensationService;
+import com.mindex.challenge.service.VersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * WebFlux variant of CompensationController used by the reactive profile
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveCompensationController {
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveCompensationController.class);
+
+    @Autowired
+    private ReactiveCompensationService compensationService;
+
+    @Autowired
+    private VersionService versionService;
+
+    /**
+     * Endpoint for reading Compensation data for employee id. Conditional requests are handled as in CompensationController.
+     * @param id Employee id
+     * @param exchange Exchange, checked for If-None-Match
+     * @return Compensations associated with employee id, or no body if not modified
+     */
+    @GetMapping("/compensation/{id}")
+    @CrossOrigin(origins = "http://localhost:3000") // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public Mono<List<Compensation>> read(@PathVariable String id, ServerWebExchange exchange) {
+        LOG.debug("Received compensation read request for employee id [{}]", id);
+
+        if (exchange.checkNotModified(versionService.compensationETag(id))) {
+            return Mono.empty();
+        }
+        // Collected, so a not modified response has no body rather than an empty array
+        return compensationService.read(id).collectList();
+    }
+
+    /**
+     * Endpoint for reading the Compensation in effect for employee id on a date
+     * @param id Employee id
+     * @param asOf ISO date, e.g. 2020-01-12. Defaults to today.
+     * @return Compensation with the latest effective date not after asOf
+     */
+    @GetMapping("/compensation/{id}/current")
+    @CrossOrigin(origins = "http://localhost:3000") // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public Mono<Compensation> readCurrent(@PathVariable String id,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        LOG.debug("Received current compensation read request for employee id [{}] as of [{}]", id, asOf);
+
+        return compensationService.readCurrent(id, CompensationController.endOfDay(asOf));
+    }
+
+    /**
+     * Endpoint for creating Compensation data
+     * @param compensation Compensation object
+     * @return Created Compensation object
+     */
+    @PostMapping("/compensation")
+    public Mono<Compensation> create(@RequestBody Compensation compensation) {
+        LOG.debug("Received compensation create request for employee id [{}]", compensation.getEmployeeId());
+
+        return compensationService.create(compensation);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mindex.challenge.controller;
+
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.ReportingStructure;
+import com.mindex.challenge.service.ReactiveEmployeeService;
+import com.mindex.challenge.service.VersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux variant of EmployeeController used by the reactive profile
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveEmployeeController {
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveEmployeeController.class);
+
+    @Autowired
+    private ReactiveEmployeeService employeeService;
+
+    @Autowired
+    private VersionService versionService;
+
+    @PostMapping("/employee")
+    public Mono<Employee> create(@RequestBody Employee employee) {
+        LOG.debug("Received employee create request for [{}]", employee);
+
+        return employeeService.create(employee);
+    }
+
+    @GetMapping("/employee/{id}")
+    @CrossOrigin(origins = "http://localhost:3000")
+    // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public Mono<Employee> read(@PathVariable String id, ServerWebExchange exchange) {
+        LOG.debug("Received employee read request for id [{}]", id);
+
+        String eTag = versionService.employeeETag(id);
+        return employeeService.read(id).filter(employee -> !exchange.checkNotModified(eTag));
+    }
+
+    @PutMapping("/employee/{id}")
+    public Mono<Employee> update(@PathVariable String id, @RequestBody Employee employee) {
+        LOG.debug("Received employee update request for id [{}] and employee [{}]", id, employee);
+
+        employee.setEmployeeId(id);
+        return employeeService.update(employee);
+    }
+
+    /**
+     * Endpoint to get ReportingStructure of employee id. The number of reports is only counted once the employee is
+     * found and the request is not conditional on the current version. Conditional requests are handled as in
+     * EmployeeController.
+     *
+     * @param id       Employee id
+     * @param exchange Exchange, checked for If-None-Match
+     * @return ReportingStructure, or no body if not modified
+     */
+    @GetMapping("/employee/{id}/reportingStructure")
+    @CrossOrigin(origins = "http://localhost:3000")
+    // Added to support call from sample UI app. This will be removed or moved to an app level config.
+    public Mono<ReportingStructure> reportingStructure(@PathVariable String id, ServerWebExchange exchange) {
+        LOG.debug("Received reporting structure request for id [{}]", id);
+
+        String eTag = versionService.reportingStructureETag(id);
+        return employeeService.read(id)
+                .filter(employee -> !exchange.checkNotModified(eTag))
+                .flatMap(employee -> employeeService.numberOfReports(id).map(numberOfReports -> {
+                    ReportingStructure reportingStructure = new ReportingStructure();
+                    reportingStructure.setEmployee(employee);
+                    reportingStructure.setNumberOfReports(numberOfReports);
+                    return reportingStructure;
+                }));
+    }
+}
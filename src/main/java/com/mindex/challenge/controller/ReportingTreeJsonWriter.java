@@ -0,0 +1,55 @@
+package com.mindex.challenge.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.service.ReportingTreeVisitor;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Writes a reporting tree as nested Employee JSON objects while it is traversed.
+ * Each employee is written as soon as it is reached, so nothing but the generator's buffer is held in memory.
+ */
+class ReportingTreeJsonWriter implements ReportingTreeVisitor {
+    private final JsonGenerator generator;
+    private final Set<String> fields;
+
+    /**
+     * Constructor for ReportingTreeJsonWriter
+     *
+     * @param generator Generator to write to
+     * @param fields    Employee fields to write. Null writes all fields. employeeId is always written.
+     */
+    ReportingTreeJsonWriter(JsonGenerator generator, Set<String> fields) {
+        this.generator = generator;
+        this.fields = fields;
+    }
+
+    @Override
+    public void startEmployee(Employee employee, boolean visitsReports) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("employeeId", employee.getEmployeeId());
+        writeField("firstName", employee.getFirstName());
+        writeField("lastName", employee.getLastName());
+        writeField("position", employee.getPosition());
+        writeField("department", employee.getDepartment());
+        if (visitsReports) {
+            generator.writeArrayFieldStart("directReports");
+        }
+    }
+
+    @Override
+    public void endEmployee(Employee employee, boolean visitsReports) throws IOException {
+        if (visitsReports) {
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeField(String name, String value) throws IOException {
+        if (fields == null || fields.contains(name)) {
+            generator.writeStringField(name, value);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.mindex.challenge.dao;
 
 import com.mindex.challenge.data.Compensation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface CompensationRepository extends MongoRepository<Compensation, String> {
+public interface CompensationRepository extends MongoRepository<Compensation, String>, CompensationRepositoryCustom {
     List<Compensation> findAllByEmployeeId(String id);
+    Compensation findFirstByEmployeeIdAndEffectiveDateLessThanEqualOrderByEffectiveDateDesc(String id, Date asOf);
+    List<Compensation> findByEmployeeIdOrderByEffectiveDateAsc(String id, Pageable pageable);
+    List<Compensation> findByEmployeeIdAndEffectiveDateAfterOrderByEffectiveDateAsc(String id, Date after, Pageable pageable);
+    Stream<Compensation> streamAllByEmployeeIdOrderByEffectiveDateAsc(String id);
 }
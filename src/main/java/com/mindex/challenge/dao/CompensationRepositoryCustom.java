@@ -0,0 +1,12 @@
+package com.mindex.challenge.dao;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Interface for declaring custom repository methods
+ */
+public interface CompensationRepositoryCustom {
+    Map<String, Double> findCurrentSalaries(Collection<String> employeeIds, Date asOf);
+}
@@ -4,8 +4,12 @@ import com.mindex.challenge.data.Employee;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface EmployeeRepository extends MongoRepository<Employee, String>, EmployeeRepositoryCustom {
     Employee findByEmployeeId(String employeeId);
+    List<Employee> findAllByEmployeeIdIn(Collection<String> employeeIds);
     Integer getNumberOfReports(String employeeId);
 }
@@ -1,8 +1,18 @@
 package com.mindex.challenge.dao;
 
+import com.mindex.challenge.data.Employee;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Interface for declaring custom repository methods
  */
 public interface EmployeeRepositoryCustom {
     Integer getNumberOfReports(String id);
+    List<String> findReportIds(String id);
+    Map<String, List<String>> findDirectReportIds(Collection<String> ids);
+    List<Employee> findEmployees(Collection<String> ids, Collection<String> fields);
+    List<String> findManagerIds(String id);
 }
@@ -0,0 +1,63 @@
+package com.mindex.challenge.dao.impl;
+
+import com.mindex.challenge.dao.CompensationRepositoryCustom;
+import com.mindex.challenge.data.Compensation;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for defining custom Compensation repository methods
+ */
+public class CompensationRepositoryCustomImpl implements CompensationRepositoryCustom {
+    private final MongoOperations operations;
+    private final int batchSize;
+
+    @Autowired
+    public CompensationRepositoryCustomImpl(MongoOperations operations,
+                                            @Value("${challenge.traversal.frontier-batch-size:10000}") int batchSize) {
+        this.operations = operations;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Fetches the salary in effect at a point in time of every employee in a collection.
+     * Each batch of employee ids is resolved with a single aggregation that matches compensations effective by asOf, sorts
+     * them by (employeeId, effectiveDate desc) along the compound index and keeps the first salary of every employee.
+     *
+     * @param employeeIds Employee ids
+     * @param asOf        Point in time
+     * @return Current salary by employee id. Employees without compensation in effect are absent.
+     */
+    @Override
+    public Map<String, Double> findCurrentSalaries(Collection<String> employeeIds, Date asOf) {
+        Map<String, Double> salaries = new HashMap<>();
+        List<String> ids = new ArrayList<>(employeeIds);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("employeeId").in(ids.subList(from, Math.min(from + batchSize, ids.size())))
+                            .and("effectiveDate").lte(asOf)),
+                    Aggregation.sort(Sort.by(Sort.Order.asc("employeeId"), Sort.Order.desc("effectiveDate"))),
+                    Aggregation.group("employeeId").first("salary").as("salary"));
+
+            for (Document current : operations.aggregate(aggregation, Compensation.class, Document.class)) {
+                Number salary = (Number) current.get("salary");
+                if (salary != null) {
+                    salaries.put(current.getString("_id"), salary.doubleValue());
+                }
+            }
+        }
+        return salaries;
+    }
+}
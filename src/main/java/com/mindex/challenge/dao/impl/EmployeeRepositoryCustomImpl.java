@@ -1,19 +1,27 @@
 package com.mindex.challenge.dao.impl;
 
+import com.mindex.challenge.config.CacheConfig;
 import com.mindex.challenge.dao.EmployeeRepositoryCustom;
 import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.service.VersionService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
-import java.nio.file.AccessDeniedException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -23,65 +31,220 @@ import java.util.stream.Collectors;
 public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
     private static final Logger LOG = LoggerFactory.getLogger(EmployeeRepositoryCustomImpl.class);
 
+    public static final String TRAVERSAL_NODES_METRIC = "challenge.traversal.nodes";
+
     private final MongoOperations operations;
+    private final HierarchyTraversal hierarchyTraversal;
+    private final EmployeeStorage storage;
+    private final Cache directReportsCache;
+    private final VersionService versionService;
+    private final DistributionSummary traversalNodes;
+
+    /**
+     * When enabled, each frontier level is fetched with a single $in query. Otherwise direct reports are queried one employee at a time.
+     */
+    private final boolean frontierQueries;
+    private final int batchSize;
+    private final int frontierBatchSize;
 
     @Autowired
-    public EmployeeRepositoryCustomImpl(MongoOperations operations) {
+    public EmployeeRepositoryCustomImpl(MongoOperations operations, HierarchyTraversal hierarchyTraversal, EmployeeStorage storage,
+                                        CacheManager cacheManager, VersionService versionService, MeterRegistry meterRegistry,
+                                        @Value("${challenge.traversal.frontier-queries:true}") boolean frontierQueries,
+                                        @Value("${challenge.traversal.batch-size:16}") int batchSize,
+                                        @Value("${challenge.traversal.frontier-batch-size:10000}") int frontierBatchSize) {
         this.operations = operations;
+        this.hierarchyTraversal = hierarchyTraversal;
+        this.storage = storage;
+        this.directReportsCache = cacheManager.getCache(CacheConfig.DIRECT_REPORTS);
+        this.versionService = versionService;
+        this.traversalNodes = traversalNodes(meterRegistry);
+        this.frontierQueries = frontierQueries;
+        this.batchSize = batchSize;
+        this.frontierBatchSize = frontierBatchSize;
     }
 
     /**
-     * Gets total number of reports under an Employee
+     * Gets total number of reports under an Employee.
+     * Time complexity: O(n) where n is the number of Employees in the hierarchy. All nodes are visited under input Employee.
+     * Employees are counted once even when the same employee reports to multiple parent employees.
+     * The number of visited employees, including the input Employee, is recorded in the challenge.traversal.nodes histogram.
      *
      * @param id Employee Id
      * @return Number of reports
      */
     @Override
     public Integer getNumberOfReports(String id) {
-        HashSet<String> directReportsSet = new HashSet();
-        return getNumberOfReportsRecursive(id, directReportsSet);
+        int numberOfReports = frontierQueries
+                ? hierarchyTraversal.countReports(id, frontierBatchSize, this::frontierDirectReportIds)
+                : hierarchyTraversal.countReports(id, batchSize, this::queryDirectReportIds);
+        traversalNodes.record(numberOfReports + 1);
+        return numberOfReports;
+    }
+
+    /**
+     * Gets ids of all distinct reports under an Employee, traversing the hierarchy in the database as getNumberOfReports does
+     *
+     * @param id Employee Id
+     * @return Ids of reports in no particular order. Empty if employee id does not exist.
+     */
+    @Override
+    public List<String> findReportIds(String id) {
+        List<String> reportIds = frontierQueries
+                ? hierarchyTraversal.findReports(id, frontierBatchSize, this::frontierDirectReportIds)
+                : hierarchyTraversal.findReports(id, batchSize, this::queryDirectReportIds);
+        traversalNodes.record(reportIds.size() + 1);
+        return reportIds;
+    }
+
+    /**
+     * Gets the histogram of employees visited per traversal of the hierarchy in the database
+     *
+     * @param meterRegistry Registry to register the histogram in
+     * @return Registered histogram
+     */
+    public static DistributionSummary traversalNodes(MeterRegistry meterRegistry) {
+        return DistributionSummary.builder(TRAVERSAL_NODES_METRIC)
+                .description("Employees visited per traversal of the hierarchy in the database")
+                .baseUnit("employees")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
-     * Helper function for counting number of reports under an employee
-     * Time complexity: O(n) where n is the number of Employees in the hierarchy. All nodes are visited under input Employee. In worst case, we start at root node.
+     * Fetches direct report ids of a batch of employees.
+     * Ids found in the directReports cache are served from it. The remaining ids are fetched with a single $in query that
+     * projects only employeeId and the ids of direct reports, so the nested partial employees are not decoded. Entries are
+     * keyed by the employee version taken before the query. See CacheConfig#directReportsKey.
      *
-     * @param employeeId       Employee id under which to find reports
-     * @param directReportsSet Hash set keeping track of visited nodes. This is needed in case of trees where same employee reports to multiple parent employees
-     * @return Count of all nested employees under Employee id
+     * @param ids Employee ids
+     * @return Direct report ids by employee id. Employees that do not exist in DB are absent.
      */
-    private Integer getNumberOfReportsRecursive(String employeeId, HashSet<String> directReportsSet) {
-        List<Employee> directReports = queryDirectReports(employeeId).stream().filter(directReport -> {
-            // Filtering out duplicate entries in directReports in cases where same employee reports to multiple parent level employees.
-            if (directReportsSet.contains(directReport.getEmployeeId())) {
-                return false;
+    @Override
+    public Map<String, List<String>> findDirectReportIds(Collection<String> ids) {
+        Map<String, List<String>> directReportIds = new HashMap<>();
+        Map<String, String> missKeys = new HashMap<>();
+        for (String id : ids) {
+            String key = directReportsKey(id);
+            List<String> cached = cachedDirectReportIds(key);
+            if (cached != null) {
+                directReportIds.put(id, cached);
+            } else {
+                missKeys.put(id, key);
             }
-            directReportsSet.add(directReport.getEmployeeId());
-            return true;
+        }
+        List<String> misses = new ArrayList<>(missKeys.keySet());
+        if (misses.isEmpty()) {
+            return directReportIds;
+        }
+
+        Query query = new Query(Criteria.where("employeeId").in(misses));
+        query.fields().include("employeeId").include(storage.directReportIdsField());
+
+        for (Employee employee : operations.find(query, Employee.class)) {
+            List<String> reportIds = directReportIds(employee);
+            directReportsCache.put(missKeys.get(employee.getEmployeeId()), reportIds);
+            directReportIds.put(employee.getEmployeeId(), reportIds);
+        }
+        return directReportIds;
+    }
 
-        }).collect(Collectors.toList());
+    /**
+     * Fetches employees with a single $in query.
+     * Only employeeId, the ids of direct reports and the requested fields are projected.
+     *
+     * @param ids    Employee ids
+     * @param fields Names of Employee fields to fetch
+     * @return Employees in no particular order. Employees that do not exist in DB are absent.
+     */
+    @Override
+    public List<Employee> findEmployees(Collection<String> ids, Collection<String> fields) {
+        Query query = new Query(Criteria.where("employeeId").in(ids));
+        query.fields().include("employeeId").include(storage.directReportIdsField());
+        fields.forEach(field -> query.fields().include(field));
 
-        return directReports.size() + directReports.parallelStream().reduce(0,
-                // Recursively count and sum the number of direct reports of each direct report of employeeId
-                (count, directReport) -> count + getNumberOfReportsRecursive(directReport.getEmployeeId(), directReportsSet), Integer::sum);
+        return operations.find(query, Employee.class);
     }
 
     /**
-     * Queries and returns list of direct reports of an employee with id from repository
-     * The response of this method is cached using basic caching functionality provided by Spring framework. Cache is evicted when EmployeeController#update is invoked with id.
-     * https://docs.spring.io/spring-framework/docs/current/javadoc-api/org/springframework/cache/annotation/Cacheable.html
+     * Fetches ids of the direct managers of an employee.
+     * Indexed when direct reports are stored as ids. See EmployeeStorage.
      *
      * @param id Employee id
-     * @return List of direct reports. Returns empty list if employee id does not exist.
+     * @return Ids of employees having the employee as direct report
      */
-    @Cacheable(value = "directReports", key = "#id")
-    private List<Employee> queryDirectReports(String id) {
+    @Override
+    public List<String> findManagerIds(String id) {
+        return storage.findManagerIds(id);
+    }
+
+    /**
+     * Fetches direct reports of every employee in a frontier batch with findDirectReportIds
+     *
+     * @param ids Employee ids
+     * @return Ids of direct reports of all employees in ids
+     */
+    private List<String> frontierDirectReportIds(List<String> ids) {
+        return findDirectReportIds(ids).values().stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    /**
+     * Queries direct reports of every employee in a batch, one employee at a time
+     *
+     * @param ids Employee ids
+     * @return Ids of direct reports of all employees in ids
+     */
+    private List<String> queryDirectReportIds(List<String> ids) {
+        List<String> directReportIds = new ArrayList<>();
+        for (String id : ids) {
+            directReportIds.addAll(queryDirectReportIds(id));
+        }
+        return directReportIds;
+    }
+
+    /**
+     * Queries and returns ids of direct reports of an employee with id from repository.
+     * The response of this method is cached in the directReports cache. The cache is used programmatically because a
+     * Cacheable annotation is not applied to calls made from within the same class. Entries are keyed by the employee
+     * version, which is bumped when the employee is updated through EmployeeService.
+     *
+     * @param id Employee id
+     * @return List of direct report ids. Returns empty list if employee id does not exist.
+     */
+    private List<String> queryDirectReportIds(String id) {
+        String key = directReportsKey(id);
+        List<String> cached = cachedDirectReportIds(key);
+        if (cached != null) {
+            return cached;
+        }
+
         Query query = new Query();
         query.addCriteria(Criteria.where("employeeId").is(id));
         Optional<Employee> employeeOptional = Optional.ofNullable(this.operations.findOne(query, Employee.class));
         if (!employeeOptional.isPresent()) {
+            // Missing employees are not cached, so the employee is found once it is created
             LOG.warn("Employee with Id [{}] does not exist in DB.", id);
+            return Collections.emptyList();
+        }
+
+        List<String> reportIds = directReportIds(employeeOptional.get());
+        directReportsCache.put(key, reportIds);
+        return reportIds;
+    }
+
+    private String directReportsKey(String id) {
+        return CacheConfig.directReportsKey(id, versionService.employeeETag(id));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> cachedDirectReportIds(String key) {
+        return directReportsCache.get(key, List.class);
+    }
+
+    private static List<String> directReportIds(Employee employee) {
+        if (employee.getDirectReports() == null) {
+            return Collections.emptyList();
         }
-        return employeeOptional.map(Employee::getDirectReports).orElse(new ArrayList());
+        return employee.getDirectReports().stream().map(Employee::getEmployeeId).collect(Collectors.toList());
     }
 }
@@ -0,0 +1,304 @@
+package com.mindex.challenge.dao.impl;
+
+import com.mindex.challenge.data.Employee;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage layout of direct reports in the employee collection.
+ * In EMBEDDED mode direct reports are stored as nested partial employees, as mapped from Employee.
+ * In IDS mode they are stored as an array of employee ids and every document also keeps the ids of its direct managers in
+ * an indexed managerIds field, so both downward and upward lookups are indexed and documents are smaller to decode.
+ * Documents are rewritten on save and direct report ids are expanded back to partial employees on load, so Employee and
+ * its API are the same in both modes. Writes of the reactive profile go through save, which keeps the layout without
+ * blocking.
+ */
+@Component
+public class EmployeeStorage extends AbstractMongoEventListener<Employee> {
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeStorage.class);
+
+    public static final String DIRECT_REPORTS = "directReports";
+    public static final String MANAGER_IDS = "managerIds";
+    private static final String ID = "_id";
+
+    public enum Mode {
+        EMBEDDED, IDS
+    }
+
+    private final MongoOperations operations;
+    private final ReactiveMongoOperations reactiveOperations;
+    private final Mode mode;
+    private final int batchSize;
+
+    @Autowired
+    public EmployeeStorage(MongoOperations operations,
+                           ReactiveMongoOperations reactiveOperations,
+                           @Value("${challenge.storage.direct-reports:embedded}") Mode mode,
+                           @Value("${challenge.import.batch-size:1000}") int batchSize) {
+        this.operations = operations;
+        this.reactiveOperations = reactiveOperations;
+        this.mode = mode;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Gets whether direct reports are stored as id arrays with a managerIds field
+     *
+     * @return True in IDS mode
+     */
+    public boolean isIdReferences() {
+        return mode == Mode.IDS;
+    }
+
+    /**
+     * Gets the field to project to read only the ids of direct reports
+     *
+     * @return Projected field name, relative to Employee
+     */
+    public String directReportIdsField() {
+        return isIdReferences() ? DIRECT_REPORTS : DIRECT_REPORTS + ".employeeId";
+    }
+
+    /**
+     * Finds ids of the direct managers of an employee.
+     * In IDS mode this reads the managerIds field of the employee by id. In EMBEDDED mode the collection is queried for
+     * employees listing it as a direct report, using the directReports._id index provisioned by IndexProvisioner.
+     *
+     * @param id Employee id
+     * @return Ids of employees having the employee as direct report. Empty if the employee does not exist.
+     */
+    public List<String> findManagerIds(String id) {
+        List<String> managerIds = new ArrayList<>();
+        if (isIdReferences()) {
+            Document document = collection().find(Filters.eq(ID, id)).projection(new Document(MANAGER_IDS, 1)).first();
+            if (document != null && document.get(MANAGER_IDS) != null) {
+                document.getList(MANAGER_IDS, String.class).forEach(managerIds::add);
+            }
+            return managerIds;
+        }
+
+        collection().find(Filters.eq(DIRECT_REPORTS + "." + ID, id)).projection(new Document(ID, 1))
+                .forEach((Document document) -> managerIds.add(document.getString(ID)));
+        return managerIds;
+    }
+
+    /**
+     * Saves employee without blocking.
+     * ReactiveMongoTemplate publishes the same save events as the blocking template, and the handlers below query and update
+     * the collection synchronously, which would block the event loop. In IDS mode the document is therefore written to the
+     * collection directly, and its managerIds and the managerIds of its direct reports are maintained with reactive queries.
+     *
+     * @param employee Employee to save
+     * @param insert True to insert, failing if the employee id exists. Otherwise the employee is replaced or inserted.
+     * @return Saved employee
+     */
+    public Mono<Employee> save(Employee employee, boolean insert) {
+        if (!isIdReferences()) {
+            return insert ? reactiveOperations.insert(employee) : reactiveOperations.save(employee);
+        }
+
+        return Mono.defer(() -> {
+            Document document = new Document();
+            reactiveOperations.getConverter().write(employee, document);
+            Object id = document.get(ID);
+            List<String> reportIds = toIds((List<?>) document.get(DIRECT_REPORTS));
+            if (document.get(DIRECT_REPORTS) != null) {
+                document.put(DIRECT_REPORTS, reportIds);
+            }
+
+            com.mongodb.reactivestreams.client.MongoCollection<Document> collection =
+                    reactiveOperations.getCollection(reactiveOperations.getCollectionName(Employee.class));
+            Mono<Void> addToReports = reportIds.isEmpty() ? Mono.empty()
+                    : Mono.from(collection.updateMany(Filters.in(ID, reportIds), Updates.addToSet(MANAGER_IDS, id))).then();
+            Mono<Void> pullFromFormerReports = Mono.from(collection.updateMany(
+                    Filters.and(Filters.eq(MANAGER_IDS, id), Filters.nin(ID, reportIds)), Updates.pull(MANAGER_IDS, id))).then();
+            return Flux.from(collection.find(Filters.eq(DIRECT_REPORTS, id)).projection(new Document(ID, 1)))
+                    .map(manager -> manager.getString(ID))
+                    .collectList()
+                    .flatMap(managerIds -> {
+                        document.put(MANAGER_IDS, managerIds);
+                        return insert ? Mono.from(collection.insertOne(document)).then()
+                                : Mono.from(collection.replaceOne(Filters.eq(ID, id), document, new ReplaceOptions().upsert(true))).then();
+                    })
+                    .then(addToReports)
+                    .then(pullFromFormerReports)
+                    .thenReturn(employee);
+        });
+    }
+
+    /**
+     * Migrates the collection to the configured layout on startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        migrate();
+    }
+
+    /**
+     * Migrates the collection to IDS layout. Nothing is done in EMBEDDED mode.
+     * Embedded direct reports are rewritten as id arrays and managerIds is rebuilt for every employee. Indexes on both fields
+     * are provisioned by IndexProvisioner. The collection is read twice with projections, in pages of batch size ordered by _id,
+     * and each page is written with one unordered bulk update after it is fully read. No cursor is open while documents are
+     * rewritten, so a document the backend moves on update is neither skipped nor seen twice. Only the reverse adjacency and
+     * one page are held in memory. It is safe to run repeatedly, e.g. after a bulk import.
+     */
+    public synchronized void migrate() {
+        if (!isIdReferences()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        MongoCollection<Document> collection = collection();
+        Map<String, List<String>> managerIds = new HashMap<>();
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        List<Document> page = page(collection, null, DIRECT_REPORTS);
+        while (!page.isEmpty()) {
+            for (Document document : page) {
+                String id = document.getString(ID);
+                List<?> directReports = (List<?>) document.get(DIRECT_REPORTS);
+                List<String> reportIds = toIds(directReports);
+                reportIds.forEach(reportId -> managerIds.computeIfAbsent(reportId, key -> new ArrayList<>()).add(id));
+                if (directReports != null && !reportIds.equals(directReports)) {
+                    updates.add(new UpdateOneModel<>(Filters.eq(ID, id), Updates.set(DIRECT_REPORTS, reportIds)));
+                }
+            }
+            flush(collection, updates);
+            page = page(collection, page.get(page.size() - 1).getString(ID), DIRECT_REPORTS);
+        }
+
+        page = page(collection, null, ID);
+        while (!page.isEmpty()) {
+            for (Document document : page) {
+                String id = document.getString(ID);
+                updates.add(new UpdateOneModel<>(Filters.eq(ID, id),
+                        Updates.set(MANAGER_IDS, managerIds.getOrDefault(id, Collections.emptyList()))));
+            }
+            flush(collection, updates);
+            page = page(collection, page.get(page.size() - 1).getString(ID), ID);
+        }
+
+        LOG.debug("Migrated employee collection to id references in [{}] ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Rewrites direct reports of the saved document as ids and sets its managerIds from the employees listing it as a direct report
+     */
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Employee> event) {
+        Document document = event.getDocument();
+        if (!isIdReferences() || document == null) {
+            return;
+        }
+
+        if (document.get(DIRECT_REPORTS) != null) {
+            document.put(DIRECT_REPORTS, toIds((List<?>) document.get(DIRECT_REPORTS)));
+        }
+        List<String> managerIds = new ArrayList<>();
+        collection().find(Filters.eq(DIRECT_REPORTS, document.get(ID))).projection(new Document(ID, 1))
+                .forEach((Document manager) -> managerIds.add(manager.getString(ID)));
+        document.put(MANAGER_IDS, managerIds);
+    }
+
+    /**
+     * Adds the saved employee to managerIds of its direct reports and removes it from managerIds of employees it no longer manages
+     */
+    @Override
+    public void onAfterSave(AfterSaveEvent<Employee> event) {
+        Document document = event.getDocument();
+        if (!isIdReferences() || document == null) {
+            return;
+        }
+
+        Object id = document.get(ID);
+        List<String> reportIds = toIds((List<?>) document.get(DIRECT_REPORTS));
+        MongoCollection<Document> collection = collection();
+        if (!reportIds.isEmpty()) {
+            collection.updateMany(Filters.in(ID, reportIds), Updates.addToSet(MANAGER_IDS, id));
+        }
+        collection.updateMany(Filters.and(Filters.eq(MANAGER_IDS, id), Filters.nin(ID, reportIds)), Updates.pull(MANAGER_IDS, id));
+    }
+
+    /**
+     * Expands direct report ids of a loaded document to partial employees before it is mapped to Employee.
+     * This is done in both modes, so documents written in IDS mode can still be read after switching back.
+     */
+    @Override
+    public void onAfterLoad(AfterLoadEvent<Employee> event) {
+        Document document = event.getDocument();
+        Object directReports = document == null ? null : document.get(DIRECT_REPORTS);
+        if (!(directReports instanceof List)) {
+            return;
+        }
+
+        List<Object> expanded = new ArrayList<>();
+        for (Object directReport : (List<?>) directReports) {
+            expanded.add(directReport instanceof String ? new Document(ID, directReport) : directReport);
+        }
+        document.put(DIRECT_REPORTS, expanded);
+    }
+
+    private MongoCollection<Document> collection() {
+        return operations.getCollection(operations.getCollectionName(Employee.class));
+    }
+
+    /**
+     * Gets ids of direct reports stored either as ids or as nested partial employees
+     */
+    private static List<String> toIds(List<?> directReports) {
+        if (directReports == null) {
+            return new ArrayList<>();
+        }
+
+        List<String> ids = new ArrayList<>(directReports.size());
+        for (Object directReport : directReports) {
+            ids.add(directReport instanceof Document ? ((Document) directReport).getString(ID) : (String) directReport);
+        }
+        return ids;
+    }
+
+    /**
+     * Reads the next page of employees after lastId in _id order, closing the cursor before returning
+     */
+    private List<Document> page(MongoCollection<Document> collection, String lastId, String field) {
+        Document filter = lastId == null ? new Document() : new Document(ID, new Document("$gt", lastId));
+        return collection.find(filter)
+                .projection(new Document(field, 1))
+                .sort(new Document(ID, 1))
+                .limit(batchSize)
+                .into(new ArrayList<>());
+    }
+
+    private static void flush(MongoCollection<Document> collection, List<WriteModel<Document>> updates) {
+        if (!updates.isEmpty()) {
+            collection.bulkWrite(new ArrayList<>(updates), new BulkWriteOptions().ordered(false));
+            updates.clear();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.mindex.challenge.dao.impl;
+
+import com.mindex.challenge.config.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Engine for traversing the reporting hierarchy stored in the database.
+ * The hierarchy is walked breadth first, one level at a time. Each frontier is split into batches that are looked up in
+ * parallel on a dedicated work-stealing pool, so blocking database calls never run on the common ForkJoin pool.
+ * Visited employees are claimed through a concurrent set, which makes counts deterministic regardless of scheduling.
+ * With challenge.virtual-threads.enabled every batch is looked up on its own virtual thread instead of a pool thread.
+ */
+@Component
+public class HierarchyTraversal {
+    private static final Logger LOG = LoggerFactory.getLogger(HierarchyTraversal.class);
+
+    private final ExecutorService executor;
+
+    /**
+     * Constructor for HierarchyTraversal using a pool of platform threads
+     *
+     * @param parallelism Number of pool threads. Defaults to 4 threads per core when not positive, as lookups block on I/O.
+     */
+    public HierarchyTraversal(int parallelism) {
+        this(parallelism, false);
+    }
+
+    /**
+     * Constructor for HierarchyTraversal
+     *
+     * @param parallelism    Number of pool threads. Defaults to 4 threads per core when not positive, as lookups block on I/O.
+     * @param virtualThreads Whether to look up batches on virtual threads. Parallelism is then ignored.
+     */
+    @Autowired
+    public HierarchyTraversal(@Value("${challenge.traversal.parallelism:0}") int parallelism,
+                              @Value("${challenge.virtual-threads.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            this.executor = VirtualThreads.newThreadPerTaskExecutor("hierarchy-traversal-");
+            LOG.debug("Created hierarchy traversal executor with virtual threads");
+            return;
+        }
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors() * 4;
+        this.executor = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("hierarchy-traversal-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        LOG.debug("Created hierarchy traversal pool with [{}] threads", threads);
+    }
+
+    /**
+     * Counts distinct employees reachable below an employee
+     *
+     * @param rootId          Employee id under which to count reports
+     * @param batchSize       Maximum number of frontier employees passed to directReportIds at once
+     * @param directReportIds Function returning the direct report ids of all employees in a batch of employee ids
+     * @return Number of reports. Employees reporting to multiple managers are counted once.
+     */
+    public int countReports(String rootId, int batchSize, Function<List<String>, List<String>> directReportIds) {
+        return traverse(rootId, batchSize, directReportIds).size() - 1;
+    }
+
+    /**
+     * Finds distinct employees reachable below an employee
+     *
+     * @param rootId          Employee id under which to find reports
+     * @param batchSize       Maximum number of frontier employees passed to directReportIds at once
+     * @param directReportIds Function returning the direct report ids of all employees in a batch of employee ids
+     * @return Ids of reports in no particular order. Employees reporting to multiple managers are listed once.
+     */
+    public List<String> findReports(String rootId, int batchSize, Function<List<String>, List<String>> directReportIds) {
+        Set<String> visited = traverse(rootId, batchSize, directReportIds);
+        visited.remove(rootId);
+        return new ArrayList<>(visited);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gets ids of the root and of every employee reachable below it, walking the hierarchy one level at a time
+     */
+    private Set<String> traverse(String rootId, int batchSize, Function<List<String>, List<String>> directReportIds) {
+        Set<String> visited = ConcurrentHashMap.newKeySet();
+        visited.add(rootId);
+
+        List<String> frontier = Collections.singletonList(rootId);
+        while (!frontier.isEmpty()) {
+            frontier = nextLevel(frontier, Math.max(1, batchSize), visited, directReportIds);
+        }
+        return visited;
+    }
+
+    /**
+     * Looks up direct reports of every employee in frontier and returns the ones not visited before
+     */
+    private List<String> nextLevel(List<String> frontier, int batchSize, Set<String> visited,
+                                   Function<List<String>, List<String>> directReportIds) {
+        if (frontier.size() <= batchSize) {
+            // A single batch is looked up on the calling thread to avoid a hand-off
+            return claim(directReportIds.apply(frontier), visited);
+        }
+
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        for (int from = 0; from < frontier.size(); from += batchSize) {
+            List<String> batch = frontier.subList(from, Math.min(from + batchSize, frontier.size()));
+            tasks.add(() -> claim(directReportIds.apply(batch), visited));
+        }
+
+        List<String> next = new ArrayList<>();
+        try {
+            for (Future<List<String>> future : executor.invokeAll(tasks)) {
+                next.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while traversing hierarchy", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return next;
+    }
+
+    /**
+     * Gets ids that were not visited before, marking them visited
+     */
+    private static List<String> claim(List<String> ids, Set<String> visited) {
+        List<String> claimed = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            if (visited.add(id)) {
+                claimed.add(id);
+            }
+        }
+        return claimed;
+    }
+}
@@ -0,0 +1,177 @@
+package com.mindex.challenge.dao.impl;
+
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Provisions the indexes used by the hot queries of the application on startup.
+ * Indexes are declared below, created if missing and verified against the indexes reported by the database when the bean
+ * is initialized. DataBootstrap depends on this bean, so seed data is inserted into indexed collections. Undeclared and
+ * missing indexes are logged, as is the winning plan of every hot query once the application is ready, so collection
+ * scans are visible in the logs.
+ * Employee lookups by employeeId are served by the _id index, as employeeId is the document id.
+ */
+@Component
+public class IndexProvisioner {
+    private static final Logger LOG = LoggerFactory.getLogger(IndexProvisioner.class);
+
+    private static final String SAMPLE_ID = "00000000-0000-0000-0000-000000000000";
+
+    private final MongoOperations operations;
+    private final EmployeeStorage employeeStorage;
+    private final boolean explain;
+
+    @Autowired
+    public IndexProvisioner(MongoOperations operations, EmployeeStorage employeeStorage,
+                            @Value("${challenge.mongo.indexes.explain:true}") boolean explain) {
+        this.operations = operations;
+        this.employeeStorage = employeeStorage;
+        this.explain = explain;
+    }
+
+    /**
+     * Gets the declared index spec
+     */
+    private List<IndexSpec> indexSpecs() {
+        List<IndexSpec> specs = new ArrayList<>();
+        // Compensation history of an employee, newest first. Also serves equality lookups on employeeId as its prefix.
+        specs.add(new IndexSpec(Compensation.class, new Index().named("employeeId_effectiveDate")
+                .on("employeeId", Sort.Direction.ASC).on("effectiveDate", Sort.Direction.DESC)));
+        if (employeeStorage.isIdReferences()) {
+            specs.add(new IndexSpec(Employee.class, new Index().named(EmployeeStorage.DIRECT_REPORTS)
+                    .on(EmployeeStorage.DIRECT_REPORTS, Sort.Direction.ASC)));
+            specs.add(new IndexSpec(Employee.class, new Index().named(EmployeeStorage.MANAGER_IDS)
+                    .on(EmployeeStorage.MANAGER_IDS, Sort.Direction.ASC)));
+        } else {
+            // Upward lookups of managers through embedded direct reports
+            specs.add(new IndexSpec(Employee.class, new Index().named("directReports_id")
+                    .on(EmployeeStorage.DIRECT_REPORTS + "._id", Sort.Direction.ASC)));
+        }
+        return specs;
+    }
+
+    /**
+     * Provisions indexes before seed data is loaded and the storage layout is migrated, so both are indexed
+     */
+    @PostConstruct
+    public void init() {
+        provision();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (explain) {
+            explainHotQueries();
+        }
+    }
+
+    /**
+     * Creates declared indexes that do not exist yet and verifies the indexes of every collection against the spec
+     */
+    public void provision() {
+        List<IndexSpec> specs = indexSpecs();
+        for (IndexSpec spec : specs) {
+            LOG.debug("Ensuring index [{}] on [{}]", spec.keys(), operations.getCollectionName(spec.type));
+            operations.indexOps(spec.type).ensureIndex(spec.index);
+        }
+
+        for (Class<?> type : Arrays.asList(Employee.class, Compensation.class)) {
+            String collection = operations.getCollectionName(type);
+            List<String> declared = specs.stream().filter(spec -> spec.type == type).map(IndexSpec::keys).collect(Collectors.toList());
+            Set<String> existing = operations.indexOps(type).getIndexInfo().stream()
+                    .map(IndexProvisioner::keys).collect(Collectors.toSet());
+
+            declared.stream().filter(keys -> !existing.contains(keys)).forEach(keys ->
+                    LOG.warn("Declared index [{}] does not exist on [{}]. Queries using it will scan the collection.", keys, collection));
+            existing.stream().filter(keys -> !declared.contains(keys) && !keys.equals("_id:1")).forEach(keys ->
+                    LOG.warn("Index [{}] on [{}] is not declared. It costs writes without serving a known query.", keys, collection));
+        }
+    }
+
+    /**
+     * Logs the winning plan of every hot query. Plans with a collection scan are logged as warnings.
+     */
+    public void explainHotQueries() {
+        explain(Employee.class, "employee by id", new Document("_id", SAMPLE_ID), null);
+        explain(Employee.class, "employees by id batch",
+                new Document("_id", new Document("$in", Collections.singletonList(SAMPLE_ID))), null);
+        explain(Employee.class, "managers of employee", employeeStorage.isIdReferences()
+                ? new Document(EmployeeStorage.DIRECT_REPORTS, SAMPLE_ID)
+                : new Document(EmployeeStorage.DIRECT_REPORTS + "._id", SAMPLE_ID), null);
+        explain(Compensation.class, "compensation history", new Document("employeeId", SAMPLE_ID),
+                new Document("effectiveDate", -1));
+    }
+
+    private void explain(Class<?> type, String description, Document filter, Document sort) {
+        Document find = new Document("find", operations.getCollectionName(type)).append("filter", filter);
+        if (sort != null) {
+            find.append("sort", sort);
+        }
+
+        Document plan;
+        try {
+            plan = operations.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+        } catch (RuntimeException e) {
+            LOG.debug("Explain of [{}] is not supported by the database. {}", description, e.getMessage());
+            return;
+        }
+
+        Object winningPlan = plan.get("queryPlanner", Document.class) == null ? null
+                : plan.get("queryPlanner", Document.class).get("winningPlan");
+        if (winningPlan != null && winningPlan.toString().contains("COLLSCAN")) {
+            LOG.warn("Query [{}] scans the collection. Winning plan: [{}]", description, winningPlan);
+        } else {
+            LOG.debug("Query [{}] winning plan: [{}]", description, winningPlan);
+        }
+    }
+
+    private static String keys(IndexInfo indexInfo) {
+        return indexInfo.getIndexFields().stream().map(IndexProvisioner::key).collect(Collectors.joining(","));
+    }
+
+    private static String key(IndexField field) {
+        return field.getKey() + ":" + (field.getDirection() == Sort.Direction.DESC ? -1 : 1);
+    }
+
+    /**
+     * Index declared for the collection of a mapped type
+     */
+    private static class IndexSpec {
+        private final Class<?> type;
+        private final Index index;
+
+        private IndexSpec(Class<?> type, Index index) {
+            this.type = type;
+            this.index = index;
+        }
+
+        /**
+         * Gets indexed fields with their direction, e.g. employeeId:1,effectiveDate:-1
+         */
+        private String keys() {
+            Document keys = index.getIndexKeys();
+            return keys.keySet().stream().map(key -> key + ":" + keys.get(key)).collect(Collectors.joining(","));
+        }
+    }
+}
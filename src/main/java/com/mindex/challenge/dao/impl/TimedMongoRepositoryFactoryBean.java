@@ -0,0 +1,79 @@
+package com.mindex.challenge.dao.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository factory bean timing every repository method invocation, including derived queries and custom implementations.
+ * Invocations are recorded in the challenge.repository timer, tagged with repository, method and exception.
+ * Methods returning a Stream are timed until the cursor is opened, not until it is consumed.
+ */
+public class TimedMongoRepositoryFactoryBean<T extends Repository<S, ID>, S, ID extends Serializable>
+        extends MongoRepositoryFactoryBean<T, S, ID> {
+    public static final String METRIC = "challenge.repository";
+
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    public TimedMongoRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+        super(repositoryInterface);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        // Resolved on first invocation, so repositories do not force early initialization of the registry
+        this.meterRegistry = beanFactory.getBeanProvider(MeterRegistry.class);
+    }
+
+    @Override
+    protected RepositoryFactorySupport getFactoryInstance(MongoOperations operations) {
+        RepositoryFactorySupport factory = super.getFactoryInstance(operations);
+        factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                new TimingInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName())));
+        return factory;
+    }
+
+    private class TimingInterceptor implements MethodInterceptor {
+        private final String repository;
+
+        private TimingInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MeterRegistry registry = meterRegistry == null ? null : meterRegistry.getIfAvailable();
+            if (registry == null || invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+
+            long start = System.nanoTime();
+            String exception = "none";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                Timer.builder(METRIC)
+                        .description("Repository method invocations")
+                        .tag("repository", repository)
+                        .tag("method", invocation.getMethod().getName())
+                        .tag("exception", exception)
+                        .register(registry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mindex.challenge.data;
+
+/**
+ * Class representing a record rejected by a bulk import
+ */
+public class BulkImportError {
+    private int index;
+    private String employeeId;
+    private String message;
+
+    public BulkImportError() {
+    }
+
+    /**
+     * Constructor for BulkImportError
+     *
+     * @param index      Zero based position of the record in the imported array
+     * @param employeeId Employee id of the record, if it could be read
+     * @param message    Reason the record was rejected
+     */
+    public BulkImportError(int index, String employeeId, String message) {
+        this.index = index;
+        this.employeeId = employeeId;
+        this.message = message;
+    }
+
+    /**
+     * Gets position of the record in the imported array
+     *
+     * @return Zero based index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets position of the record in the imported array
+     *
+     * @param index Zero based index
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * Gets employee id of the record
+     *
+     * @return Employee id or null if it could not be read
+     */
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    /**
+     * Sets employee id of the record
+     *
+     * @param employeeId Employee id
+     */
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    /**
+     * Gets reason the record was rejected
+     *
+     * @return Error message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Sets reason the record was rejected
+     *
+     * @param message Error message
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
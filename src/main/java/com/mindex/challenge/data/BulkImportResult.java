@@ -0,0 +1,81 @@
+package com.mindex.challenge.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class representing the outcome of a bulk import
+ */
+public class BulkImportResult {
+    private int received;
+    private int inserted;
+    private int failed;
+    private boolean aborted;
+    private List<BulkImportError> errors = new ArrayList<>();
+
+    /**
+     * Gets number of records read from the input
+     *
+     * @return Number of records
+     */
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    /**
+     * Gets number of records inserted in the database
+     *
+     * @return Number of records
+     */
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+
+    /**
+     * Gets number of rejected records
+     *
+     * @return Number of records. May exceed the size of errors, which is capped.
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Gets whether the import stopped before the end of the input because the input is not a well formed JSON array.
+     * Records of batches written before that remain inserted.
+     *
+     * @return True if import was aborted
+     */
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void setAborted(boolean aborted) {
+        this.aborted = aborted;
+    }
+
+    /**
+     * Gets rejected records
+     *
+     * @return List of errors
+     */
+    public List<BulkImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BulkImportError> errors) {
+        this.errors = errors;
+    }
+}
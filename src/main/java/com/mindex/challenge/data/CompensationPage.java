@@ -0,0 +1,55 @@
+package com.mindex.challenge.data;
+
+import java.util.List;
+
+/**
+ * Class representing one page of the compensation history of an employee
+ */
+public class CompensationPage {
+    private List<Compensation> compensations;
+    private String nextCursor;
+
+    public CompensationPage() {
+    }
+
+    public CompensationPage(List<Compensation> compensations, String nextCursor) {
+        this.compensations = compensations;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets compensations of the page, oldest effective date first
+     *
+     * @return Compensations
+     */
+    public List<Compensation> getCompensations() {
+        return compensations;
+    }
+
+    /**
+     * Sets compensations of the page
+     *
+     * @param compensations Compensations
+     */
+    public void setCompensations(List<Compensation> compensations) {
+        this.compensations = compensations;
+    }
+
+    /**
+     * Gets opaque cursor of the next page
+     *
+     * @return Cursor to pass to get the next page or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets opaque cursor of the next page
+     *
+     * @param nextCursor Cursor or null if this is the last page
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
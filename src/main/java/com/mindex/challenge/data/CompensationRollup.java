@@ -0,0 +1,126 @@
+package com.mindex.challenge.data;
+
+import java.util.Map;
+
+/**
+ * Class representing current salary statistics over all reports under an employee
+ */
+public class CompensationRollup {
+    private String employeeId;
+    private Integer numberOfReports;
+    private Integer compensatedReports;
+    private Double totalSalary;
+    private Double meanSalary;
+    private Map<String, Double> salaryPercentiles;
+
+    public CompensationRollup() {
+    }
+
+    /**
+     * Gets identifier of the employee at the root of the rollup
+     *
+     * @return Employee id
+     */
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    /**
+     * Sets identifier of the employee at the root of the rollup
+     *
+     * @param employeeId Employee id
+     */
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    /**
+     * Gets number of distinct reports under the employee
+     *
+     * @return Number of reports
+     */
+    public Integer getNumberOfReports() {
+        return numberOfReports;
+    }
+
+    /**
+     * Sets number of distinct reports under the employee
+     *
+     * @param numberOfReports Number of reports
+     */
+    public void setNumberOfReports(Integer numberOfReports) {
+        this.numberOfReports = numberOfReports;
+    }
+
+    /**
+     * Gets number of reports with a compensation in effect, i.e. the number of salaries in the rollup
+     *
+     * @return Number of compensated reports
+     */
+    public Integer getCompensatedReports() {
+        return compensatedReports;
+    }
+
+    /**
+     * Sets number of reports with a compensation in effect
+     *
+     * @param compensatedReports Number of compensated reports
+     */
+    public void setCompensatedReports(Integer compensatedReports) {
+        this.compensatedReports = compensatedReports;
+    }
+
+    /**
+     * Gets sum of current salaries of reports
+     *
+     * @return Total salary
+     */
+    public Double getTotalSalary() {
+        return totalSalary;
+    }
+
+    /**
+     * Sets sum of current salaries of reports
+     *
+     * @param totalSalary Total salary
+     */
+    public void setTotalSalary(Double totalSalary) {
+        this.totalSalary = totalSalary;
+    }
+
+    /**
+     * Gets mean current salary of compensated reports
+     *
+     * @return Mean salary or null if no report is compensated
+     */
+    public Double getMeanSalary() {
+        return meanSalary;
+    }
+
+    /**
+     * Sets mean current salary of compensated reports
+     *
+     * @param meanSalary Mean salary
+     */
+    public void setMeanSalary(Double meanSalary) {
+        this.meanSalary = meanSalary;
+    }
+
+    /**
+     * Gets nearest-rank percentiles of current salaries of compensated reports, keyed p50, p90 and p99
+     *
+     * @return Salary by percentile. Empty if no report is compensated.
+     */
+    public Map<String, Double> getSalaryPercentiles() {
+        return salaryPercentiles;
+    }
+
+    /**
+     * Sets percentiles of current salaries of compensated reports
+     *
+     * @param salaryPercentiles Salary by percentile
+     */
+    public void setSalaryPercentiles(Map<String, Double> salaryPercentiles) {
+        this.salaryPercentiles = salaryPercentiles;
+    }
+}
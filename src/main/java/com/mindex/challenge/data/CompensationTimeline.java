@@ -0,0 +1,75 @@
+package com.mindex.challenge.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Effective-dated compensation history of an employee, sorted by effective date.
+ * Effective dates are kept in a primitive array, so the compensation in effect at a point in time is found with a binary
+ * search without allocating. Instances are immutable and safe to share between threads.
+ */
+public class CompensationTimeline {
+    private final long[] effectiveDates;
+    private final Compensation[] compensations;
+
+    private CompensationTimeline(long[] effectiveDates, Compensation[] compensations) {
+        this.effectiveDates = effectiveDates;
+        this.compensations = compensations;
+    }
+
+    /**
+     * Creates timeline of compensations of an employee. Compensations without effective date are ignored.
+     *
+     * @param compensations Compensations in any order
+     * @return Timeline sorted by effective date
+     */
+    public static CompensationTimeline of(List<Compensation> compensations) {
+        List<Compensation> sorted = new ArrayList<>(compensations.size());
+        for (Compensation compensation : compensations) {
+            if (compensation.getEffectiveDate() != null) {
+                sorted.add(compensation);
+            }
+        }
+        sorted.sort(Comparator.comparing(Compensation::getEffectiveDate));
+
+        long[] effectiveDates = new long[sorted.size()];
+        for (int i = 0; i < effectiveDates.length; i++) {
+            effectiveDates[i] = sorted.get(i).getEffectiveDate().getTime();
+        }
+        return new CompensationTimeline(effectiveDates, sorted.toArray(new Compensation[0]));
+    }
+
+    /**
+     * Gets number of compensations in the timeline
+     *
+     * @return Number of compensations
+     */
+    public int size() {
+        return compensations.length;
+    }
+
+    /**
+     * Gets compensation in effect at a point in time, i.e. the one with the latest effective date not after asOf.
+     * Time complexity: O(log n)
+     *
+     * @param asOf Point in time
+     * @return Compensation in effect or null if no compensation was effective yet
+     */
+    public Compensation asOf(Date asOf) {
+        long time = asOf.getTime();
+        int low = 0;
+        int high = effectiveDates.length - 1;
+        // Finds the last effective date <= time. Equal dates resolve to the last one, as sorting is stable.
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (effectiveDates[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high < 0 ? null : compensations[high];
+    }
+}
@@ -0,0 +1,79 @@
+package com.mindex.challenge.data;
+
+/**
+ * Class representing the result of reading one employee id in a batch read
+ */
+public class EmployeeBatchResult {
+    private String employeeId;
+    private boolean found;
+    private Employee employee;
+
+    public EmployeeBatchResult() {
+    }
+
+    /**
+     * Constructor for EmployeeBatchResult
+     *
+     * @param employeeId Requested employee id
+     * @param employee   Employee with id or null if employee does not exist
+     */
+    public EmployeeBatchResult(String employeeId, Employee employee) {
+        this.employeeId = employeeId;
+        this.found = employee != null;
+        this.employee = employee;
+    }
+
+    /**
+     * Gets requested employee id
+     *
+     * @return Employee id
+     */
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    /**
+     * Sets requested employee id
+     *
+     * @param employeeId Employee id
+     */
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    /**
+     * Gets whether employee with id exists
+     *
+     * @return False if employee does not exist
+     */
+    public boolean isFound() {
+        return found;
+    }
+
+    /**
+     * Sets whether employee with id exists
+     *
+     * @param found False if employee does not exist
+     */
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    /**
+     * Gets employee with requested id
+     *
+     * @return Employee object or null if employee does not exist
+     */
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    /**
+     * Sets employee with requested id
+     *
+     * @param employee Employee object
+     */
+    public void setEmployee(Employee employee) {
+        this.employee = employee;
+    }
+}
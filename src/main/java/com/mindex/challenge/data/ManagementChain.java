@@ -0,0 +1,51 @@
+package com.mindex.challenge.data;
+
+import java.util.List;
+
+/**
+ * Class used to represent the management chain of an employee, i.e. everyone above the employee up to the top of the hierarchy
+ */
+public class ManagementChain {
+    private Employee employee;
+    private List<List<String>> paths;
+
+    public ManagementChain() {
+    }
+
+    /**
+     * Gets employee associated with ManagementChain
+     *
+     * @return Employee object
+     */
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    /**
+     * Sets employee associated with ManagementChain
+     *
+     * @param employee Employee object
+     */
+    public void setEmployee(Employee employee) {
+        this.employee = employee;
+    }
+
+    /**
+     * Gets management paths of employee. Each path lists manager ids from the direct manager up to an employee without managers.
+     * Employees reporting to multiple managers have one path per manager.
+     *
+     * @return Paths of manager ids
+     */
+    public List<List<String>> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Sets management paths of employee
+     *
+     * @param paths Paths of manager ids, nearest manager first
+     */
+    public void setPaths(List<List<String>> paths) {
+        this.paths = paths;
+    }
+}
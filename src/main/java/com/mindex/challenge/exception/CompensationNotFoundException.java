@@ -0,0 +1,7 @@
+package com.mindex.challenge.exception;
+
+public class CompensationNotFoundException extends RuntimeException {
+    public CompensationNotFoundException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -2,6 +2,7 @@ package com.mindex.challenge.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +16,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
  * TODO: Add any app level exception handling.
  */
 @ControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     private static final Logger LOG = LoggerFactory.getLogger(
             GlobalExceptionHandler.class);
@@ -32,4 +34,22 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         LOG.warn("Request failed because employee with id does not exist in database. {} {}", ex.getMessage(), ex.getStackTrace());
         return new ResponseEntity<>("Employee does not exist", new HttpHeaders(), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler({CompensationNotFoundException.class})
+    public ResponseEntity<Object> handleCompensationNotFoundException(Exception ex, WebRequest request) {
+        LOG.warn("Request failed because no compensation is in effect. {}", ex.getMessage());
+        return new ResponseEntity<>("Compensation does not exist", new HttpHeaders(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler({InvalidCursorException.class})
+    public ResponseEntity<Object> handleInvalidCursorException(Exception ex, WebRequest request) {
+        LOG.warn("Request failed because of an invalid page cursor. {}", ex.getMessage());
+        return new ResponseEntity<>("Invalid cursor", new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({InvalidBatchException.class})
+    public ResponseEntity<Object> handleInvalidBatchException(Exception ex, WebRequest request) {
+        LOG.warn("Request failed because of an invalid batch. {}", ex.getMessage());
+        return new ResponseEntity<>("Invalid batch", new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
 }
\ No newline at end of file
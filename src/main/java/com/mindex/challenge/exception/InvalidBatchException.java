@@ -0,0 +1,7 @@
+package com.mindex.challenge.exception;
+
+public class InvalidBatchException extends RuntimeException {
+    public InvalidBatchException(String errorMessage) {
+        super(errorMessage);
+    }
+}
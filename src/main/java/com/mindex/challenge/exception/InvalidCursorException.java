@@ -0,0 +1,7 @@
+package com.mindex.challenge.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String errorMessage) {
+        super(errorMessage);
+    }
+}
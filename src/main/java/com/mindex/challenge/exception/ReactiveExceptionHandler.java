@@ -0,0 +1,37 @@
+package com.mindex.challenge.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * WebFlux variant of GlobalExceptionHandler used by the reactive profile
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    @ExceptionHandler({RuntimeException.class})
+    public ResponseEntity<Object> handleRuntimeException(Exception ex) {
+        LOG.error("Exception {}", ex.getMessage(), ex);
+        return new ResponseEntity<>("Something went wrong.", new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @ExceptionHandler({EmployeeNotFoundException.class})
+    public ResponseEntity<Object> handleEmployeeNotFoundException(Exception ex) {
+        LOG.warn("Request failed because employee with id does not exist in database. {}", ex.getMessage());
+        return new ResponseEntity<>("Employee does not exist", new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({CompensationNotFoundException.class})
+    public ResponseEntity<Object> handleCompensationNotFoundException(Exception ex) {
+        LOG.warn("Request failed because no compensation is in effect. {}", ex.getMessage());
+        return new ResponseEntity<>("Compensation does not exist", new HttpHeaders(), HttpStatus.NOT_FOUND);
+    }
+}
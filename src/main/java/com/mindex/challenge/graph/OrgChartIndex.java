@@ -0,0 +1,310 @@
+package com.mindex.challenge.graph;
+
+import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-process index of the reporting hierarchy stored in the employee collection.
+ * The index is built from the database on first use and kept current by EmployeeService#create and EmployeeService#update,
+ * so reporting structure queries are answered from memory without any database calls. Its reverse adjacency is also used
+ * to find the ancestors whose cached reporting structure goes stale when an employee changes.
+ * With challenge.org-index.enabled=false changes never load the index. They are applied only if it was already loaded,
+ * and the affected ancestors are looked up in the database instead.
+ * With challenge.snapshot.file a loaded index is written to an OrgSnapshot on shutdown. A restored snapshot answers queries
+ * from the mapped file until the first change, which deletes the file and loads the graph from the database.
+ */
+@Component
+public class OrgChartIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(OrgChartIndex.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final Path snapshotFile;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Graph of the hierarchy. Null until the index is loaded from the database.
+     */
+    private OrgGraph graph;
+
+    /**
+     * Mapped snapshot of the hierarchy. Null unless restored and unchanged since.
+     */
+    private OrgSnapshot snapshot;
+
+    @Autowired
+    public OrgChartIndex(EmployeeRepository employeeRepository,
+                         @Value("${challenge.snapshot.file:}") String snapshotFile,
+                         @Value("${challenge.org-index.enabled:true}") boolean enabled) {
+        this.employeeRepository = employeeRepository;
+        this.snapshotFile = snapshotFile.isEmpty() ? null : Paths.get(snapshotFile);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets total number of distinct reports under an employee.
+     * Time complexity: O(1). Counts are materialized in the graph and maintained on every put.
+     *
+     * @param id Employee id
+     * @return Number of reports. Returns 0 if employee id does not exist.
+     */
+    public int numberOfReports(String id) {
+        return read(loaded -> loaded.countReports(id));
+    }
+
+    /**
+     * Gets ids of all distinct reports under an employee
+     *
+     * @param id Employee id
+     * @return Ids of reports. Empty if employee id does not exist.
+     */
+    public List<String> reportIds(String id) {
+        return read(loaded -> loaded.reports(id));
+    }
+
+    /**
+     * Gets every management path of an employee from the reverse adjacency.
+     * Time complexity: O(p * d) where p is the number of paths and d their length.
+     *
+     * @param id Employee id
+     * @return Paths of manager ids, nearest manager first. Empty if employee has no managers or does not exist.
+     */
+    public List<List<String>> managementPaths(String id) {
+        return read(loaded -> loaded.managementPaths(id));
+    }
+
+    /**
+     * Applies created or updated employee to the index. Report counts of the employee and its ancestors are updated incrementally.
+     * The index is loaded first if needed, as the reverse adjacency is used to find the affected ancestors. When the index
+     * is disabled it is only updated if already loaded, and the ancestors are walked upward in the database.
+     *
+     * @param employee Persisted employee
+     * @return Ids of the employee and of every ancestor before or after the change, i.e. every employee whose number of reports may have changed
+     */
+    public Set<String> put(Employee employee) {
+        if (!enabled) {
+            putIfLoaded(employee);
+            return selfAndAncestorsInDatabase(employee.getEmployeeId());
+        }
+
+        lock.writeLock().lock();
+        try {
+            dropSnapshot();
+            OrgGraph loaded = loadedGraph();
+            Set<String> affected = loaded.selfAndAncestors(employee.getEmployeeId());
+            loaded.setDirectReports(employee.getEmployeeId(), directReportIds(employee));
+            affected.addAll(loaded.selfAndAncestors(employee.getEmployeeId()));
+            return affected;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets whether the graph is loaded
+     *
+     * @return True once the graph was loaded from the database
+     */
+    boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return graph != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the index and its snapshot. It is rebuilt from the database on next use.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            dropSnapshot();
+            graph = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Maps the snapshot file, if configured and present, to answer queries until the first change.
+     * Must only be called when the database holds the data the snapshot was written from, e.g. on startup without seeding.
+     *
+     * @return True if a snapshot was mapped
+     */
+    public boolean restoreSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (graph != null) {
+                return false;
+            }
+            long start = System.nanoTime();
+            snapshot = OrgSnapshot.open(snapshotFile);
+            LOG.debug("Restored org chart index with [{}] employees from [{}] in [{}] ms", snapshot.size(), snapshotFile,
+                    (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Failed to restore org chart index from [{}]. It is loaded from the database instead.", snapshotFile, e);
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the loaded graph to the snapshot file under the read lock, so queries are served while it is written.
+     * Nothing is written if no snapshot file is configured, the restored snapshot is unchanged or the graph was never
+     * loaded, so shutdown never reads the database.
+     *
+     * @throws IOException If the snapshot cannot be written
+     */
+    public void writeSnapshot() throws IOException {
+        if (snapshotFile == null) {
+            return;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (snapshot != null || graph == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            OrgSnapshot.write(snapshotFile, graph);
+            LOG.debug("Wrote org chart snapshot with [{}] employees to [{}] in [{}] ms", graph.size(), snapshotFile,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to write org chart snapshot to [{}]", snapshotFile, e);
+        }
+    }
+
+    /**
+     * Applies employee to the graph if it is loaded, so it stays current for later reads without being loaded for the change
+     */
+    private void putIfLoaded(Employee employee) {
+        lock.writeLock().lock();
+        try {
+            dropSnapshot();
+            if (graph != null) {
+                graph.setDirectReports(employee.getEmployeeId(), directReportIds(employee));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets ids of an employee and all of its transitive managers, looking up managers level by level in the database
+     */
+    private Set<String> selfAndAncestorsInDatabase(String id) {
+        Set<String> visited = new HashSet<>(Collections.singleton(id));
+        Deque<String> pending = new ArrayDeque<>(visited);
+        while (!pending.isEmpty()) {
+            for (String managerId : employeeRepository.findManagerIds(pending.poll())) {
+                if (visited.add(managerId)) {
+                    pending.add(managerId);
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Drops the restored snapshot and deletes its file, which no longer matches the database. Must be called holding the write lock.
+     */
+    private void dropSnapshot() {
+        snapshot = null;
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(snapshotFile);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete stale org chart snapshot [{}]", snapshotFile, e);
+        }
+    }
+
+    /**
+     * Applies a query to the graph or restored snapshot under the read lock, loading the graph under the write lock first if needed
+     */
+    private <T> T read(Function<OrgHierarchy, T> query) {
+        lock.readLock().lock();
+        try {
+            if (graph != null) {
+                return query.apply(graph);
+            }
+            if (snapshot != null) {
+                return query.apply(snapshot);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            return query.apply(loadedGraph());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the graph, loading it from the database if needed. Must be called holding the write lock.
+     *
+     * @return Loaded graph
+     */
+    private OrgGraph loadedGraph() {
+        if (graph == null) {
+            long start = System.nanoTime();
+            OrgGraph loaded = new OrgGraph();
+            for (Employee employee : employeeRepository.findAll()) {
+                loaded.loadDirectReports(employee.getEmployeeId(), directReportIds(employee));
+            }
+            loaded.recomputeReportCounts();
+            graph = loaded;
+            LOG.debug("Loaded org chart index with [{}] employees in [{}] ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        return graph;
+    }
+
+    private static List<String> directReportIds(Employee employee) {
+        if (employee.getDirectReports() == null) {
+            return Collections.emptyList();
+        }
+        return employee.getDirectReports().stream().map(Employee::getEmployeeId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,441 @@
+package com.mindex.challenge.graph;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Primitive int-id adjacency graph of the reporting hierarchy.
+ * Every employee id is mapped to a dense ordinal and the direct reports of an employee are kept as an int array indexed
+ * by that ordinal, so traversals never touch the database or allocate per-node objects.
+ * Managers of every employee are kept as a reverse adjacency, and the number of distinct reports under every employee is
+ * materialized and maintained incrementally when direct reports change.
+ * This class is not thread safe. Access is guarded by OrgChartIndex.
+ */
+public class OrgGraph implements OrgHierarchy {
+    private static final Logger LOG = LoggerFactory.getLogger(OrgGraph.class);
+
+    private static final int[] NONE = new int[0];
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private int[][] directReports = new int[INITIAL_CAPACITY][];
+    private int[][] managers = new int[INITIAL_CAPACITY][];
+    private int[] reportCounts = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Gets number of employees known to the graph, including employees only referenced as direct reports
+     *
+     * @return Number of nodes
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets ordinal of employee id
+     *
+     * @param id Employee id
+     * @return Ordinal of employee or -1 if employee is not known to the graph
+     */
+    @Override
+    public int ordinal(String id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Gets employee id of ordinal
+     *
+     * @param ordinal Ordinal of employee
+     * @return Employee id
+     */
+    @Override
+    public String id(int ordinal) {
+        return ids[ordinal];
+    }
+
+    /**
+     * Gets ordinals of direct reports of ordinal. The returned array must not be modified.
+     *
+     * @param ordinal Ordinal of employee
+     * @return Ordinals of direct reports
+     */
+    @Override
+    public int[] directReports(int ordinal) {
+        return directReports[ordinal];
+    }
+
+    /**
+     * Gets ordinals of direct managers of ordinal. The returned array must not be modified.
+     *
+     * @param ordinal Ordinal of employee
+     * @return Ordinals of employees having ordinal as direct report
+     */
+    @Override
+    public int[] managers(int ordinal) {
+        return managers[ordinal];
+    }
+
+    /**
+     * Gets ids of an employee and all of its transitive managers by walking the reverse adjacency
+     *
+     * @param id Employee id
+     * @return Ids of employee and its ancestors. Only id is returned if employee is not known to the graph.
+     */
+    public Set<String> selfAndAncestors(String id) {
+        Set<String> result = new HashSet<>();
+        int ordinal = ordinal(id);
+        if (ordinal < 0) {
+            result.add(id);
+            return result;
+        }
+
+        BitSet none = new BitSet();
+        ancestors(ordinal, -1, none, none).stream().forEach(ancestor -> result.add(ids[ancestor]));
+        return result;
+    }
+
+    /**
+     * Gets materialized number of distinct reports under an employee.
+     * Time complexity: O(1)
+     *
+     * @param id Employee id
+     * @return Number of reports. Returns 0 if employee id is not known to the graph.
+     */
+    @Override
+    public int countReports(String id) {
+        int ordinal = ordinal(id);
+        return ordinal < 0 ? 0 : reportCounts[ordinal];
+    }
+
+    /**
+     * Replaces direct reports of an employee without maintaining report counts.
+     * Used for bulk loading the graph. recomputeReportCounts must be invoked once loading is done.
+     *
+     * @param id        Employee id
+     * @param reportIds Employee ids of direct reports. Null is treated as no reports.
+     */
+    public void loadDirectReports(String id, Collection<String> reportIds) {
+        int ordinal = intern(id);
+        link(ordinal, internAll(reportIds));
+    }
+
+    /**
+     * Computes report counts of every employee from scratch, children before their managers.
+     * Employees are ordered so every employee comes after all of its managers, and counts are computed in reverse order.
+     * The count of an employee is summed from its direct reports when their subtrees cannot overlap: when it has a single
+     * direct report, or when every direct report is a closed subtree, i.e. it and all employees below it have one manager.
+     * Other employees, above employees with multiple managers, are counted with a traversal that adds closed subtrees
+     * from their counts without descending into them. Employees on or below a reporting cycle are counted first, with a full traversal each.
+     * Time complexity: O(n) for trees and chains. Each employee counted by traversal adds the number of employees below it
+     * that are not in closed subtrees, which is quadratic only for wide layers of employees with multiple managers.
+     */
+    public void recomputeReportCounts() {
+        // Kahn's algorithm over the direct report edges. Employees on or below a cycle never reach zero pending managers.
+        int[] pendingManagers = new int[size];
+        int[] order = new int[size];
+        int ordered = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            pendingManagers[ordinal] = managers[ordinal].length;
+            if (pendingManagers[ordinal] == 0) {
+                order[ordered++] = ordinal;
+            }
+        }
+        for (int i = 0; i < ordered; i++) {
+            for (int report : directReports[order[i]]) {
+                if (--pendingManagers[report] == 0) {
+                    order[ordered++] = report;
+                }
+            }
+        }
+
+        boolean[] closed = new boolean[size];
+        int[] visited = new int[size];
+        int[] stack = new int[INITIAL_CAPACITY];
+        // Employees below a cycle only have cyclic employees below them, so they are counted first
+        if (ordered < size) {
+            LOG.warn("[{}] employees are on or below a reporting cycle. Counting their reports one traversal each.", size - ordered);
+            BitSet cyclic = new BitSet(size);
+            cyclic.set(0, size);
+            for (int i = 0; i < ordered; i++) {
+                cyclic.clear(order[i]);
+            }
+            // Ordinal + 1 is used as the visit mark, so visited never has to be cleared between traversals
+            cyclic.stream().forEach(ordinal -> reportCounts[ordinal] = countReachable(ordinal, visited, ordinal + 1, stack, closed));
+        }
+
+        for (int i = ordered - 1; i >= 0; i--) {
+            int ordinal = order[i];
+            int[] reports = directReports[ordinal];
+            if (reports.length == 1) {
+                reportCounts[ordinal] = reportCounts[reports[0]] + 1;
+                closed[ordinal] = closed[reports[0]] && managers[reports[0]].length == 1;
+                continue;
+            }
+
+            boolean summable = true;
+            int count = 0;
+            for (int report : reports) {
+                summable &= closed[report] && managers[report].length == 1;
+                count += reportCounts[report] + 1;
+            }
+            closed[ordinal] = summable;
+            reportCounts[ordinal] = summable ? count : countReachable(ordinal, visited, ordinal + 1, stack, closed);
+        }
+    }
+
+    /**
+     * Replaces direct reports of an employee and incrementally updates report counts.
+     * Only the employee and its ancestors are updated. For every employee whose reachability from the employee changed,
+     * each ancestor's count is adjusted unless the ancestor reaches that employee through another path, which keeps counts
+     * exact when an employee reports to multiple managers.
+     * Time complexity: O(m * a) where m is the number of employees in the moved subtrees and a the number of ancestors.
+     *
+     * @param id        Employee id
+     * @param reportIds Employee ids of direct reports. Null is treated as no reports.
+     */
+    public void setDirectReports(String id, Collection<String> reportIds) {
+        int employee = intern(id);
+        int[] oldReports = directReports[employee];
+        int[] newReports = internAll(reportIds);
+
+        BitSet added = difference(newReports, oldReports);
+        BitSet removed = difference(oldReports, newReports);
+        if (added.isEmpty() && removed.isEmpty()) {
+            directReports[employee] = newReports;
+            return;
+        }
+
+        // Employees that may no longer be reachable, computed before the change, and that may have become reachable, after it
+        int[] lostCandidates = reachableFrom(removed);
+        link(employee, newReports);
+        int[] gainedCandidates = reachableFrom(added);
+
+        if (contains(lostCandidates, employee) || contains(gainedCandidates, employee)) {
+            LOG.warn("Direct reports of employee [{}] form a reporting cycle. Recomputing all report counts.", id);
+            recomputeReportCounts();
+            return;
+        }
+
+        BitSet none = new BitSet();
+        int[] affected = toArray(ancestors(employee, employee, none, none));
+        for (int candidate : gainedCandidates) {
+            // Ancestors of candidate before the change. Edges from employee to added reports did not exist and edges to removed reports did.
+            BitSet previousAncestors = ancestors(candidate, employee, added, removed);
+            if (!previousAncestors.get(employee)) {
+                adjustCounts(affected, previousAncestors, 1);
+            }
+        }
+        for (int candidate : lostCandidates) {
+            BitSet currentAncestors = ancestors(candidate, employee, none, none);
+            if (!currentAncestors.get(employee)) {
+                adjustCounts(affected, currentAncestors, -1);
+            }
+        }
+    }
+
+    /**
+     * Adds delta to the count of every affected employee that does not reach the candidate through another path
+     */
+    private void adjustCounts(int[] affected, BitSet otherPaths, int delta) {
+        for (int ancestor : affected) {
+            if (!otherPaths.get(ancestor)) {
+                reportCounts[ancestor] += delta;
+            }
+        }
+    }
+
+    /**
+     * Replaces direct reports of employee and updates the reverse adjacency of added and removed reports
+     */
+    private void link(int employee, int[] reports) {
+        int[] oldReports = directReports[employee];
+        for (int report : difference(oldReports, reports).stream().toArray()) {
+            managers[report] = remove(managers[report], employee);
+        }
+        for (int report : difference(reports, oldReports).stream().toArray()) {
+            managers[report] = append(managers[report], employee);
+        }
+        directReports[employee] = reports;
+    }
+
+    /**
+     * Counts distinct employees reachable from root, excluding root itself.
+     * Closed subtrees are only reachable through their top employee, so they are added from its count without descending.
+     */
+    private int countReachable(int root, int[] visited, int mark, int[] stack, boolean[] closed) {
+        visited[root] = mark;
+        stack[0] = root;
+        int top = 1;
+        int count = 0;
+
+        while (top > 0) {
+            for (int report : directReports[stack[--top]]) {
+                if (visited[report] == mark) {
+                    continue;
+                }
+                visited[report] = mark;
+                count++;
+                if (closed[report]) {
+                    count += reportCounts[report];
+                    continue;
+                }
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = report;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets roots and all employees reachable from them
+     */
+    private int[] reachableFrom(BitSet roots) {
+        BitSet visited = new BitSet(size);
+        int[] stack = roots.stream().toArray();
+        int top = stack.length;
+        visited.or(roots);
+
+        while (top > 0) {
+            for (int report : directReports[stack[--top]]) {
+                if (visited.get(report)) {
+                    continue;
+                }
+                visited.set(report);
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(INITIAL_CAPACITY, top * 2));
+                }
+                stack[top++] = report;
+            }
+        }
+        return visited.stream().toArray();
+    }
+
+    /**
+     * Gets node and all of its transitive managers.
+     * The edges from changedManager to employees in hiddenFrom are ignored and edges from changedManager to employees in
+     * extraFrom are added, which allows walking the graph as it was before a change of changedManager's direct reports.
+     */
+    private BitSet ancestors(int node, int changedManager, BitSet hiddenFrom, BitSet extraFrom) {
+        BitSet visited = new BitSet(size);
+        visited.set(node);
+        int[] stack = new int[INITIAL_CAPACITY];
+        stack[0] = node;
+        int top = 1;
+
+        while (top > 0) {
+            int current = stack[--top];
+            int[] currentManagers = managers[current];
+            boolean extra = extraFrom.get(current);
+            for (int i = 0; i < currentManagers.length + (extra ? 1 : 0); i++) {
+                int manager = i < currentManagers.length ? currentManagers[i] : changedManager;
+                if (visited.get(manager) || (manager == changedManager && hiddenFrom.get(current))) {
+                    continue;
+                }
+                visited.set(manager);
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = manager;
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Gets ordinals of employee ids in order, assigning new ordinals as needed. Duplicate ids are returned once.
+     */
+    private int[] internAll(Collection<String> reportIds) {
+        if (reportIds == null || reportIds.isEmpty()) {
+            return NONE;
+        }
+
+        int[] reports = new int[reportIds.size()];
+        BitSet seen = new BitSet();
+        int count = 0;
+        for (String reportId : reportIds) {
+            int report = intern(reportId);
+            if (!seen.get(report)) {
+                seen.set(report);
+                reports[count++] = report;
+            }
+        }
+        return count == reports.length ? reports : Arrays.copyOf(reports, count);
+    }
+
+    /**
+     * Gets ordinal of employee id, assigning the next free ordinal if employee is not known yet
+     *
+     * @param id Employee id
+     * @return Ordinal of employee
+     */
+    private int intern(String id) {
+        Integer existing = ordinals.get(id);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            directReports = Arrays.copyOf(directReports, capacity);
+            managers = Arrays.copyOf(managers, capacity);
+            reportCounts = Arrays.copyOf(reportCounts, capacity);
+        }
+        ids[size] = id;
+        directReports[size] = NONE;
+        managers[size] = NONE;
+        ordinals.put(id, size);
+        return size++;
+    }
+
+    private static BitSet difference(int[] values, int[] excluded) {
+        BitSet result = new BitSet();
+        for (int value : values) {
+            result.set(value);
+        }
+        for (int value : excluded) {
+            result.clear(value);
+        }
+        return result;
+    }
+
+    private static int[] toArray(BitSet bitSet) {
+        return bitSet.stream().toArray();
+    }
+
+    private static boolean contains(int[] values, int value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    private static int[] remove(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                int[] result = new int[values.length - 1];
+                System.arraycopy(values, 0, result, 0, i);
+                System.arraycopy(values, i + 1, result, i, values.length - i - 1);
+                return result;
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,156 @@
+package com.mindex.challenge.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Read-only view of the reporting hierarchy as a dense int-id adjacency.
+ * Implemented by OrgGraph, which is built on the heap and maintained incrementally, and by OrgSnapshot, which reads the
+ * same adjacency from a memory-mapped file. Traversals are written once against the ordinal accessors.
+ */
+public interface OrgHierarchy {
+
+    /**
+     * Gets number of employees known to the hierarchy, including employees only referenced as direct reports
+     *
+     * @return Number of nodes
+     */
+    int size();
+
+    /**
+     * Gets ordinal of employee id
+     *
+     * @param id Employee id
+     * @return Ordinal of employee or -1 if employee is not known to the hierarchy
+     */
+    int ordinal(String id);
+
+    /**
+     * Gets employee id of ordinal
+     *
+     * @param ordinal Ordinal of employee
+     * @return Employee id
+     */
+    String id(int ordinal);
+
+    /**
+     * Gets ordinals of direct reports of ordinal. The returned array must not be modified.
+     *
+     * @param ordinal Ordinal of employee
+     * @return Ordinals of direct reports
+     */
+    int[] directReports(int ordinal);
+
+    /**
+     * Gets ordinals of direct managers of ordinal. The returned array must not be modified.
+     *
+     * @param ordinal Ordinal of employee
+     * @return Ordinals of employees having ordinal as direct report
+     */
+    int[] managers(int ordinal);
+
+    /**
+     * Gets materialized number of distinct reports under an employee.
+     * Time complexity: O(1)
+     *
+     * @param id Employee id
+     * @return Number of reports. Returns 0 if employee id is not known to the hierarchy.
+     */
+    int countReports(String id);
+
+    /**
+     * Gets ids of all distinct reports under an employee, in ordinal order.
+     * Time complexity: O(s) where s is the size of the subtree.
+     *
+     * @param id Employee id
+     * @return Ids of reports, excluding the employee itself. Empty if employee is not known to the hierarchy.
+     */
+    default List<String> reports(String id) {
+        List<String> reports = new ArrayList<>();
+        int ordinal = ordinal(id);
+        if (ordinal < 0) {
+            return reports;
+        }
+
+        BitSet visited = new BitSet(size());
+        int[] stack = new int[16];
+        stack[0] = ordinal;
+        int top = 1;
+        visited.set(ordinal);
+
+        while (top > 0) {
+            for (int report : directReports(stack[--top])) {
+                if (visited.get(report)) {
+                    continue;
+                }
+                visited.set(report);
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = report;
+            }
+        }
+
+        visited.clear(ordinal);
+        visited.stream().forEach(report -> reports.add(id(report)));
+        return reports;
+    }
+
+    /**
+     * Gets every management path of an employee, walking the reverse adjacency depth first.
+     * Each path starts at a direct manager and ends at an employee without managers. An employee reporting to multiple
+     * managers has one path per manager and paths branch further up the same way. Managers already on a path are not
+     * revisited, so reporting cycles do not produce paths.
+     * Time complexity: O(p * d) where p is the number of paths and d their length.
+     *
+     * @param id Employee id
+     * @return Paths of manager ids, nearest manager first. Empty if employee has no managers or is not known to the hierarchy.
+     */
+    default List<List<String>> managementPaths(String id) {
+        List<List<String>> paths = new ArrayList<>();
+        int ordinal = ordinal(id);
+        if (ordinal < 0) {
+            return paths;
+        }
+
+        // path[0..depth] is the current path from employee upward and next[i] the next manager of path[i] to visit
+        int[] path = new int[16];
+        int[] next = new int[16];
+        BitSet onPath = new BitSet();
+        path[0] = ordinal;
+        onPath.set(ordinal);
+        int depth = 0;
+
+        while (depth >= 0) {
+            int node = path[depth];
+            int[] nodeManagers = managers(node);
+            if (depth > 0 && nodeManagers.length == 0) {
+                List<String> managementPath = new ArrayList<>(depth);
+                for (int i = 1; i <= depth; i++) {
+                    managementPath.add(id(path[i]));
+                }
+                paths.add(managementPath);
+            }
+            if (next[depth] == nodeManagers.length) {
+                onPath.clear(node);
+                depth--;
+                continue;
+            }
+
+            int manager = nodeManagers[next[depth]++];
+            if (onPath.get(manager)) {
+                continue;
+            }
+            if (++depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                next = Arrays.copyOf(next, depth * 2);
+            }
+            path[depth] = manager;
+            next[depth] = 0;
+            onPath.set(manager);
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,304 @@
+package com.mindex.challenge.graph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only snapshot of the reporting hierarchy in a memory-mapped file.
+ * The file holds one column per attribute in ordinal order behind a header of column offsets:
+ * employee ids, sorted by their UTF-8 bytes so an id is found by binary search; direct reports and managers as compressed
+ * rows of n + 1 row offsets followed by ordinals; and report counts.
+ * Ids are stored as length prefixed UTF-8 behind an int offset per ordinal.
+ * Opening a snapshot maps the file and reads only its header, and queries read the mapping in place, so the heap holds
+ * no per-employee objects. Reads use absolute gets and are thread safe. A snapshot is limited to 2 GB, the size of one mapping.
+ */
+public class OrgSnapshot implements OrgHierarchy {
+    private static final int MAGIC = 0x4F524753;
+    private static final int VERSION = 2;
+
+    private static final int IDS = 0;
+    private static final int DIRECT_REPORTS = 1;
+    private static final int MANAGERS = 2;
+    private static final int REPORT_COUNTS = 3;
+    private static final int COLUMNS = 4;
+    private static final int HEADER_SIZE = 12 + COLUMNS * 4;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int[] columns = new int[COLUMNS];
+
+    private OrgSnapshot(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an org snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported org snapshot version [" + buffer.getInt(4) + "]");
+        }
+
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        for (int column = 0; column < COLUMNS; column++) {
+            columns[column] = buffer.getInt(12 + column * 4);
+        }
+    }
+
+    /**
+     * Maps a snapshot file read-only. The mapping stays valid after the file is deleted or replaced.
+     *
+     * @param file Snapshot file
+     * @return Mapped snapshot
+     * @throws IOException If the file cannot be read or is not a snapshot
+     */
+    public static OrgSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Org snapshot [" + file + "] exceeds 2 GB");
+            }
+            return new OrgSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes a snapshot of a hierarchy. The file is written next to the target and moved over it, so a snapshot mapped
+     * from the previous file is not affected.
+     *
+     * @param file      Snapshot file
+     * @param hierarchy Hierarchy to write
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(Path file, OrgHierarchy hierarchy) throws IOException {
+        int size = hierarchy.size();
+
+        // Snapshot ordinals follow the unsigned byte order of ids, which is the order ordinal searches in
+        byte[][] graphIds = new byte[size][];
+        Integer[] order = new Integer[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            graphIds[ordinal] = utf8(hierarchy.id(ordinal));
+            order[ordinal] = ordinal;
+        }
+        Arrays.sort(order, (a, b) -> compare(graphIds[a], graphIds[b]));
+        int[] snapshotOrdinals = new int[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            snapshotOrdinals[order[ordinal]] = ordinal;
+        }
+
+        byte[][] ids = new byte[size][];
+        int[][] directReports = new int[size][];
+        int[][] managers = new int[size][];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int graphOrdinal = order[ordinal];
+            ids[ordinal] = graphIds[graphOrdinal];
+            directReports[ordinal] = remap(hierarchy.directReports(graphOrdinal), snapshotOrdinals);
+            managers[ordinal] = remap(hierarchy.managers(graphOrdinal), snapshotOrdinals);
+        }
+
+        long[] offsets = new long[COLUMNS + 1];
+        offsets[0] = HEADER_SIZE;
+        for (int column = 0; column < COLUMNS; column++) {
+            long columnSize;
+            if (column == IDS) {
+                columnSize = stringsSize(ids);
+            } else if (column == DIRECT_REPORTS) {
+                columnSize = rowsSize(directReports);
+            } else if (column == MANAGERS) {
+                columnSize = rowsSize(managers);
+            } else {
+                columnSize = size * 4L;
+            }
+            offsets[column + 1] = offsets[column] + columnSize;
+        }
+        if (offsets[COLUMNS] > Integer.MAX_VALUE) {
+            throw new IOException("Org snapshot of [" + size + "] employees exceeds 2 GB");
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(size);
+            for (int column = 0; column < COLUMNS; column++) {
+                out.writeInt((int) offsets[column]);
+            }
+
+            writeStrings(out, (int) offsets[IDS], ids);
+            writeRows(out, directReports);
+            writeRows(out, managers);
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                out.writeInt(hierarchy.countReports(hierarchy.id(order[ordinal])));
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets ordinal of employee id by binary search over the id column.
+     * Time complexity: O(log n) comparisons
+     *
+     * @param id Employee id
+     * @return Ordinal of employee or -1 if employee is not in the snapshot
+     */
+    @Override
+    public int ordinal(String id) {
+        byte[] key = utf8(id);
+        if (key == null) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(middle, key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String id(int ordinal) {
+        return string(IDS, ordinal);
+    }
+
+    @Override
+    public int[] directReports(int ordinal) {
+        return row(DIRECT_REPORTS, ordinal);
+    }
+
+    @Override
+    public int[] managers(int ordinal) {
+        return row(MANAGERS, ordinal);
+    }
+
+    @Override
+    public int countReports(String id) {
+        int ordinal = ordinal(id);
+        return ordinal < 0 ? 0 : buffer.getInt(columns[REPORT_COUNTS] + ordinal * 4);
+    }
+
+    private String string(int column, int ordinal) {
+        int position = buffer.getInt(columns[column] + ordinal * 4);
+        int length = buffer.getInt(position);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the id of ordinal with key by unsigned bytes, without decoding the id
+     */
+    private int compare(int ordinal, byte[] key) {
+        int position = buffer.getInt(columns[IDS] + ordinal * 4);
+        int length = buffer.getInt(position);
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int comparison = Integer.compare(buffer.get(position + 4 + i) & 0xff, key[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private int[] row(int column, int ordinal) {
+        int offsets = columns[column];
+        int from = buffer.getInt(offsets + ordinal * 4);
+        int to = buffer.getInt(offsets + (ordinal + 1) * 4);
+        int values = offsets + (size + 1) * 4;
+
+        int[] row = new int[to - from];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = buffer.getInt(values + (from + i) * 4);
+        }
+        return row;
+    }
+
+    private static long stringsSize(byte[][] values) {
+        long size = values.length * 4L;
+        for (byte[] value : values) {
+            size += 4 + value.length;
+        }
+        return size;
+    }
+
+    private static void writeStrings(DataOutputStream out, int offset, byte[][] values) throws IOException {
+        int position = offset + values.length * 4;
+        for (byte[] value : values) {
+            out.writeInt(position);
+            position += 4 + value.length;
+        }
+        for (byte[] value : values) {
+            out.writeInt(value.length);
+            out.write(value);
+        }
+    }
+
+    private static long rowsSize(int[][] rows) {
+        long size = (rows.length + 1) * 4L;
+        for (int[] row : rows) {
+            size += row.length * 4L;
+        }
+        return size;
+    }
+
+    private static void writeRows(DataOutputStream out, int[][] rows) throws IOException {
+        int offset = 0;
+        out.writeInt(offset);
+        for (int[] row : rows) {
+            offset += row.length;
+            out.writeInt(offset);
+        }
+        for (int[] row : rows) {
+            for (int value : row) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    private static int[] remap(int[] ordinals, int[] snapshotOrdinals) {
+        int[] remapped = new int[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            remapped[i] = snapshotOrdinals[ordinals[i]];
+        }
+        return remapped;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int comparison = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+}
@@ -0,0 +1,11 @@
+package com.mindex.challenge.service;
+
+import com.mindex.challenge.data.BulkImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BulkImportService {
+    BulkImportResult importEmployees(InputStream inputStream) throws IOException;
+    BulkImportResult importCompensations(InputStream inputStream) throws IOException;
+}
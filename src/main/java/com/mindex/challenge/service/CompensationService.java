@@ -1,11 +1,19 @@
 package com.mindex.challenge.service;
 
 import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.CompensationPage;
+import com.mindex.challenge.data.CompensationRollup;
 import com.mindex.challenge.data.Employee;
 
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CompensationService {
     Compensation create(Compensation compensation);
     List<Compensation> read(String employeeId);
+    CompensationPage readPage(String employeeId, String cursor, int size);
+    Stream<Compensation> stream(String employeeId);
+    Compensation readCurrent(String employeeId, Date asOf);
+    CompensationRollup rollup(String employeeId, Date asOf);
 }
@@ -1,10 +1,19 @@
 package com.mindex.challenge.service;
 
 import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeeBatchResult;
+import com.mindex.challenge.data.ManagementChain;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 public interface EmployeeService {
     Employee create(Employee employee);
     Employee read(String id);
+    List<EmployeeBatchResult> read(List<String> ids);
     Employee update(Employee employee);
     Integer numberOfReports(String id);
+    ManagementChain managementChain(String id);
+    void traverseReportingTree(String id, int maxDepth, Set<String> fields, ReportingTreeVisitor visitor) throws IOException;
 }
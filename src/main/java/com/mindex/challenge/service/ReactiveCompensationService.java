@@ -0,0 +1,13 @@
+package com.mindex.challenge.service;
+
+import com.mindex.challenge.data.Compensation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+public interface ReactiveCompensationService {
+    Mono<Compensation> create(Compensation compensation);
+    Flux<Compensation> read(String employeeId);
+    Mono<Compensation> readCurrent(String employeeId, Date asOf);
+}
@@ -0,0 +1,27 @@
+package com.mindex.challenge.service;
+
+import com.mindex.challenge.data.Employee;
+
+import java.io.IOException;
+
+/**
+ * Callback receiving employees of a reporting tree in depth-first order while the tree is traversed
+ */
+public interface ReportingTreeVisitor {
+    /**
+     * Invoked when an employee is reached
+     *
+     * @param employee       Employee with the projected fields
+     * @param visitsReports True if direct reports of the employee are visited next, false if the employee is a leaf of the
+     *                       tree, has already been visited under another manager or is at the maximum depth
+     */
+    void startEmployee(Employee employee, boolean visitsReports) throws IOException;
+
+    /**
+     * Invoked once the employee and all of its visited reports are done
+     *
+     * @param employee       Employee passed to startEmployee
+     * @param visitsReports Value passed to startEmployee
+     */
+    void endEmployee(Employee employee, boolean visitsReports) throws IOException;
+}
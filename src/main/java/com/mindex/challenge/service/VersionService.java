@@ -0,0 +1,13 @@
+package com.mindex.challenge.service;
+
+import java.util.Collection;
+
+public interface VersionService {
+    String employeeETag(String employeeId);
+    String reportingStructureETag(String employeeId);
+    String compensationETag(String employeeId);
+    void employeeChanged(String employeeId);
+    void reportsChanged(Collection<String> employeeIds);
+    void compensationChanged(String employeeId);
+    void resetAll();
+}
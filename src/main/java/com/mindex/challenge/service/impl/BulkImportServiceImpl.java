@@ -0,0 +1,230 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.config.CacheConfig;
+import com.mindex.challenge.dao.impl.EmployeeStorage;
+import com.mindex.challenge.data.BulkImportError;
+import com.mindex.challenge.data.BulkImportResult;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.graph.OrgChartIndex;
+import com.mindex.challenge.service.BulkImportService;
+import com.mindex.challenge.service.VersionService;
+import com.mongodb.bulk.BulkWriteError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Service importing large JSON arrays of records.
+ * The input is read with a streaming parser and records are written with unordered bulk inserts of a configurable batch
+ * size, so neither the input nor the whole import is held in memory. Records that cannot be read, fail validation or are
+ * rejected by the database are reported individually without aborting their batch.
+ */
+@Service
+public class BulkImportServiceImpl implements BulkImportService {
+    private static final Logger LOG = LoggerFactory.getLogger(BulkImportServiceImpl.class);
+
+    @Autowired
+    private MongoOperations mongoOperations;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrgChartIndex orgChartIndex;
+
+    @Autowired
+    private EmployeeStorage employeeStorage;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private VersionService versionService;
+
+    @Value("${challenge.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${challenge.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * Imports a JSON array of employees. Bulk inserts bypass per-document storage maintenance, so the collection is migrated
+     * to the configured storage layout afterwards. The org chart index, cached report counts and resource versions are reset.
+     *
+     * @param inputStream JSON array of Employee objects
+     * @return Import result
+     */
+    @Override
+    public BulkImportResult importEmployees(InputStream inputStream) throws IOException {
+        LOG.debug("Importing employees");
+
+        try {
+            return importRecords(inputStream, Employee.class, Employee::getEmployeeId,
+                    employee -> employee.getEmployeeId() == null ? "employeeId is required" : null);
+        } finally {
+            employeeStorage.migrate();
+            // Inserted employees may be direct reports already referenced by existing managers
+            orgChartIndex.invalidate();
+            cacheManager.getCache(CacheConfig.REPORT_COUNTS).clear();
+            versionService.resetAll();
+        }
+    }
+
+    /**
+     * Imports a JSON array of compensations. Cached compensation timelines and resource versions are reset.
+     *
+     * @param inputStream JSON array of Compensation objects
+     * @return Import result
+     */
+    @Override
+    public BulkImportResult importCompensations(InputStream inputStream) throws IOException {
+        LOG.debug("Importing compensations");
+
+        try {
+            return importRecords(inputStream, Compensation.class, Compensation::getEmployeeId, compensation -> {
+                if (compensation.getEmployeeId() == null) {
+                    return "employeeId is required";
+                }
+                if (compensation.getEffectiveDate() == null) {
+                    return "effectiveDate is required";
+                }
+                return compensation.getSalary() == null ? "salary is required" : null;
+            });
+        } finally {
+            cacheManager.getCache(CacheConfig.COMPENSATION_TIMELINES).clear();
+            versionService.resetAll();
+        }
+    }
+
+    /**
+     * Streams records of a JSON array into the database in batches
+     *
+     * @param inputStream JSON array of records
+     * @param type        Record type
+     * @param idOf        Function returning the employee id of a record, used in error reports
+     * @param validator   Function returning why a record is invalid or null if it is valid
+     * @return Import result
+     */
+    private <T> BulkImportResult importRecords(InputStream inputStream, Class<T> type, Function<T, String> idOf,
+                                               Function<T, String> validator) throws IOException {
+        ImportRun<T> run = new ImportRun<>(type, idOf);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                run.abort("Expected a JSON array of records");
+                return run.result;
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    run.abort("Unexpected end of input");
+                    break;
+                }
+
+                int index = run.result.getReceived();
+                run.result.setReceived(index + 1);
+                // Each record is read as a tree first, so a record that does not bind to type does not stop the parser
+                JsonNode node = objectMapper.readTree(parser);
+                T record;
+                try {
+                    record = objectMapper.treeToValue(node, type);
+                } catch (JsonProcessingException e) {
+                    run.reject(index, node.path("employeeId").textValue(), e.getOriginalMessage());
+                    continue;
+                }
+
+                String invalid = validator.apply(record);
+                if (invalid != null) {
+                    run.reject(index, idOf.apply(record), invalid);
+                    continue;
+                }
+
+                run.add(index, record);
+                if (run.batch.size() >= batchSize) {
+                    run.flush();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            run.abort("Malformed JSON: " + e.getOriginalMessage());
+        }
+
+        run.flush();
+        LOG.debug("Imported [{}] of [{}] [{}] records", run.result.getInserted(), run.result.getReceived(), type.getSimpleName());
+        return run.result;
+    }
+
+    /**
+     * State of one import: the result so far and the batch being filled
+     */
+    private class ImportRun<T> {
+        private final Class<T> type;
+        private final Function<T, String> idOf;
+        private final BulkImportResult result = new BulkImportResult();
+        private final List<T> batch = new ArrayList<>();
+        private final List<Integer> batchIndexes = new ArrayList<>();
+
+        private ImportRun(Class<T> type, Function<T, String> idOf) {
+            this.type = type;
+            this.idOf = idOf;
+        }
+
+        private void add(int index, T record) {
+            batch.add(record);
+            batchIndexes.add(index);
+        }
+
+        private void reject(int index, String employeeId, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxReportedErrors) {
+                result.getErrors().add(new BulkImportError(index, employeeId, message));
+            }
+        }
+
+        private void abort(String message) {
+            LOG.warn("Aborting import of [{}] records after [{}] records. {}", type.getSimpleName(), result.getReceived(), message);
+            result.setAborted(true);
+            reject(result.getReceived(), null, message);
+        }
+
+        /**
+         * Inserts the batch with one unordered bulk write. Records rejected by the database do not stop the others.
+         */
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            BulkOperations operations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+            operations.insert(batch);
+            try {
+                result.setInserted(result.getInserted() + operations.execute().getInsertedCount());
+            } catch (BulkOperationException e) {
+                result.setInserted(result.getInserted() + e.getResult().getInsertedCount());
+                for (BulkWriteError error : e.getErrors()) {
+                    reject(batchIndexes.get(error.getIndex()), idOf.apply(batch.get(error.getIndex())), error.getMessage());
+                }
+            }
+            batch.clear();
+            batchIndexes.clear();
+        }
+    }
+}
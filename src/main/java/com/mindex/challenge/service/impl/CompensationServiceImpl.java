@@ -1,30 +1,209 @@
 package com.mindex.challenge.service.impl;
 
+import com.mindex.challenge.config.CacheConfig;
 import com.mindex.challenge.dao.CompensationRepository;
 import com.mindex.challenge.dao.EmployeeRepository;
 import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.CompensationPage;
+import com.mindex.challenge.data.CompensationRollup;
+import com.mindex.challenge.data.CompensationTimeline;
+import com.mindex.challenge.exception.CompensationNotFoundException;
+import com.mindex.challenge.exception.EmployeeNotFoundException;
+import com.mindex.challenge.exception.InvalidCursorException;
+import com.mindex.challenge.graph.OrgChartIndex;
 import com.mindex.challenge.service.CompensationService;
+import com.mindex.challenge.service.VersionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class CompensationServiceImpl implements CompensationService {
     private static final Logger LOG = LoggerFactory.getLogger(CompensationServiceImpl.class);
 
+    private static final List<Integer> PERCENTILES = Arrays.asList(50, 90, 99);
+
     @Autowired
     private CompensationRepository compensationRepository;
 
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private OrgChartIndex orgChartIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private VersionService versionService;
+
+    /**
+     * When enabled, current compensation is looked up in cached per-employee timelines. Otherwise it is queried from the
+     * database with the (employeeId, effectiveDate desc) index and a limit of 1.
+     */
+    @Value("${challenge.compensation.timeline-cache.enabled:true}")
+    private boolean timelineCacheEnabled;
+
+    /**
+     * When enabled, reports are taken from the in-memory OrgChartIndex. Otherwise the hierarchy is traversed in the database.
+     */
+    @Value("${challenge.org-index.enabled:true}")
+    private boolean orgIndexEnabled;
+
+    @Value("${challenge.compensation.page.max-size:1000}")
+    private int maxPageSize;
+
     @Override
+    @CacheEvict(value = CacheConfig.COMPENSATION_TIMELINES, key = "#compensation.employeeId")
     public Compensation create(Compensation compensation) {
-        return compensationRepository.insert(compensation);
+        Compensation createdCompensation = compensationRepository.insert(compensation);
+        versionService.compensationChanged(createdCompensation.getEmployeeId());
+        return createdCompensation;
     }
 
     @Override
     public List<Compensation> read(String id) {
         return compensationRepository.findAllByEmployeeId(id);
     }
+
+    /**
+     * Reads one page of the compensation history of an employee, oldest first.
+     * Pages are keyset paginated: the cursor holds the last effective date of the previous page, which is unique per
+     * employee, and the next page is queried with effectiveDate greater than it along the (employeeId, effectiveDate) index.
+     * No documents are skipped, so every page costs the same regardless of its position in the history.
+     *
+     * @param id     Employee id
+     * @param cursor Cursor returned with the previous page or null for the first page
+     * @param size   Maximum number of compensations in the page, capped by challenge.compensation.page.max-size
+     * @return Page of compensations with the cursor of the next page
+     */
+    @Override
+    public CompensationPage readPage(String id, String cursor, int size) {
+        LOG.debug("Reading compensation page of employee with id [{}] after cursor [{}]", id, cursor);
+
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // One more compensation than the page size is fetched to find out whether there is a next page
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Compensation> compensations = cursor == null
+                ? compensationRepository.findByEmployeeIdOrderByEffectiveDateAsc(id, limit)
+                : compensationRepository.findByEmployeeIdAndEffectiveDateAfterOrderByEffectiveDateAsc(id, decodeCursor(cursor), limit);
+
+        if (compensations.size() <= pageSize) {
+            return new CompensationPage(compensations, null);
+        }
+        List<Compensation> page = compensations.subList(0, pageSize);
+        return new CompensationPage(page, encodeCursor(page.get(pageSize - 1).getEffectiveDate()));
+    }
+
+    /**
+     * Streams the compensation history of an employee, oldest first, from a database cursor.
+     * The returned stream holds the cursor open and must be closed.
+     *
+     * @param id Employee id
+     * @return Stream of compensations
+     */
+    @Override
+    public Stream<Compensation> stream(String id) {
+        LOG.debug("Streaming compensations of employee with id [{}]", id);
+
+        return compensationRepository.streamAllByEmployeeIdOrderByEffectiveDateAsc(id);
+    }
+
+    /**
+     * Gets compensation of an employee in effect at a point in time.
+     * The compensation history of the employee is loaded once into a timeline held in the compensationTimelines cache and
+     * looked up with a binary search. Timelines are evicted when a compensation is created for the employee.
+     *
+     * @param id   Employee id
+     * @param asOf Point in time
+     * @return Compensation with the latest effective date not after asOf
+     */
+    @Override
+    public Compensation readCurrent(String id, Date asOf) {
+        LOG.debug("Reading compensation of employee with id [{}] as of [{}]", id, asOf);
+
+        Compensation current = timelineCacheEnabled
+                ? cacheManager.getCache(CacheConfig.COMPENSATION_TIMELINES)
+                        .get(id, () -> CompensationTimeline.of(compensationRepository.findAllByEmployeeId(id))).asOf(asOf)
+                : compensationRepository.findFirstByEmployeeIdAndEffectiveDateLessThanEqualOrderByEffectiveDateDesc(id, asOf);
+
+        if (current == null) {
+            throw new CompensationNotFoundException("No compensation in effect for employeeId: " + id + " as of " + asOf);
+        }
+        return current;
+    }
+
+    /**
+     * Computes current salary statistics over all distinct reports under an employee.
+     * Reports are taken from the OrgChartIndex, or found with a traversal of the hierarchy in the database when the index
+     * is disabled, and their current salaries are fetched with one aggregation per batch of ids, so the rollup costs a
+     * single pass over the compensations of the subtree.
+     *
+     * @param id   Employee id
+     * @param asOf Point in time at which salaries are in effect
+     * @return Total, mean and percentiles of current salaries of reports
+     */
+    @Override
+    public CompensationRollup rollup(String id, Date asOf) {
+        LOG.debug("Rolling up compensation under employee with id [{}] as of [{}]", id, asOf);
+
+        if (!employeeRepository.existsById(id)) {
+            throw new EmployeeNotFoundException("Invalid employeeId: " + id);
+        }
+
+        List<String> reportIds = orgIndexEnabled ? orgChartIndex.reportIds(id) : employeeRepository.findReportIds(id);
+        Collection<Double> salaries = compensationRepository.findCurrentSalaries(reportIds, asOf).values();
+        double[] sorted = salaries.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        double total = 0;
+        for (double salary : sorted) {
+            total += salary;
+        }
+
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        if (sorted.length > 0) {
+            for (int percentile : PERCENTILES) {
+                // Nearest-rank percentile
+                int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+                percentiles.put("p" + percentile, sorted[Math.max(rank, 1) - 1]);
+            }
+        }
+
+        CompensationRollup rollup = new CompensationRollup();
+        rollup.setEmployeeId(id);
+        rollup.setNumberOfReports(reportIds.size());
+        rollup.setCompensatedReports(sorted.length);
+        rollup.setTotalSalary(total);
+        rollup.setMeanSalary(sorted.length == 0 ? null : total / sorted.length);
+        rollup.setSalaryPercentiles(percentiles);
+        return rollup;
+    }
+
+    private static String encodeCursor(Date effectiveDate) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(effectiveDate.getTime()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Date decodeCursor(String cursor) {
+        try {
+            return new Date(Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
 }
@@ -1,35 +1,91 @@
 package com.mindex.challenge.service.impl;
 
+import com.mindex.challenge.config.CacheConfig;
 import com.mindex.challenge.dao.EmployeeRepository;
 import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeeBatchResult;
+import com.mindex.challenge.data.ManagementChain;
 import com.mindex.challenge.exception.EmployeeNotFoundException;
+import com.mindex.challenge.exception.InvalidBatchException;
+import com.mindex.challenge.graph.OrgChartIndex;
+import com.mindex.challenge.graph.OrgGraph;
 import com.mindex.challenge.service.EmployeeService;
+import com.mindex.challenge.service.ReportingTreeVisitor;
+import com.mindex.challenge.service.VersionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
     private static final Logger LOG = LoggerFactory.getLogger(EmployeeServiceImpl.class);
 
+    /**
+     * Employee fields that can be projected in a reporting tree. employeeId is always included.
+     */
+    private static final Set<String> TREE_FIELDS = new LinkedHashSet<>(Arrays.asList("firstName", "lastName", "position", "department"));
+
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private OrgChartIndex orgChartIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private VersionService versionService;
+
+    /**
+     * When enabled, number of reports is served from the in-memory OrgChartIndex. Otherwise the hierarchy is traversed in the database.
+     */
+    @Value("${challenge.org-index.enabled:true}")
+    private boolean orgIndexEnabled;
+
+    @Value("${challenge.traversal.frontier-batch-size:10000}")
+    private int frontierBatchSize;
+
+    @Value("${challenge.employee.batch.max-size:1000}")
+    private int maxBatchSize;
+
     @Override
+    @CachePut(value = CacheConfig.EMPLOYEES, key = "#result.employeeId")
     public Employee create(Employee employee) {
         LOG.debug("Creating employee [{}]", employee);
 
         employee.setEmployeeId(UUID.randomUUID().toString());
         employeeRepository.insert(employee);
+        changed(employee.getEmployeeId(), orgChartIndex.put(employee));
 
         return employee;
     }
 
     @Override
+    @Cacheable(value = CacheConfig.EMPLOYEES, key = "#id")
     public Employee read(String id) {
         LOG.debug("Reading employee with id [{}]", id);
 
@@ -42,17 +98,296 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employee;
     }
 
+    /**
+     * Reads a batch of employees. Employees found in the employees cache are served from it and the remaining ones are
+     * fetched with a single $in query and cached.
+     *
+     * @param ids Employee ids, at most challenge.employee.batch.max-size
+     * @return Result for every id, in request order. Ids of employees that do not exist are marked as not found.
+     * @throws InvalidBatchException If ids has more than challenge.employee.batch.max-size ids or a null id
+     */
     @Override
+    public List<EmployeeBatchResult> read(List<String> ids) {
+        LOG.debug("Reading [{}] employees", ids.size());
+
+        if (ids.size() > maxBatchSize) {
+            throw new InvalidBatchException("Batch of " + ids.size() + " ids exceeds the maximum of " + maxBatchSize);
+        }
+        if (ids.contains(null)) {
+            throw new InvalidBatchException("Batch contains a null id");
+        }
+
+        Cache employees = cacheManager.getCache(CacheConfig.EMPLOYEES);
+        Map<String, Employee> found = new HashMap<>();
+        Set<String> misses = new HashSet<>();
+        for (String id : ids) {
+            Employee cached = employees.get(id, Employee.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (Employee employee : employeeRepository.findAllByEmployeeIdIn(misses)) {
+                employees.put(employee.getEmployeeId(), employee);
+                found.put(employee.getEmployeeId(), employee);
+            }
+        }
+
+        List<EmployeeBatchResult> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            results.add(new EmployeeBatchResult(id, found.get(id)));
+        }
+        return results;
+    }
+
+    /**
+     * Updates employee. The cached employee is replaced.
+     * Reporting structure versions of the employee and all of its ancestors are bumped along with the version of the
+     * employee, which retires its cached direct reports and their cached report counts, as their subtrees may have changed.
+     *
+     * @param employee Employee object
+     * @return Updated Employee object
+     */
+    @Override
+    @CachePut(value = CacheConfig.EMPLOYEES, key = "#result.employeeId")
     public Employee update(Employee employee) {
         LOG.debug("Updating employee [{}]", employee);
 
-        return employeeRepository.save(employee);
+        Employee updatedEmployee = employeeRepository.save(employee);
+        changed(updatedEmployee.getEmployeeId(), orgChartIndex.put(updatedEmployee));
+
+        return updatedEmployee;
     }
 
+    /**
+     * Gets number of reports of an employee, cached under its reporting structure version. See CacheConfig#reportCountKey.
+     *
+     * @param id Employee id
+     * @return Number of distinct reports
+     */
     @Override
     public Integer numberOfReports(String id) {
         LOG.debug("Fetching number of reports of employee with id [{}]", id);
 
-        return employeeRepository.getNumberOfReports(id);
+        Cache reportCounts = cacheManager.getCache(CacheConfig.REPORT_COUNTS);
+        String key = CacheConfig.reportCountKey(id, versionService.reportingStructureETag(id));
+        Integer cached = reportCounts.get(key, Integer.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        Integer numberOfReports = orgIndexEnabled ? orgChartIndex.numberOfReports(id) : employeeRepository.getNumberOfReports(id);
+        reportCounts.put(key, numberOfReports);
+        return numberOfReports;
+    }
+
+    /**
+     * Gets every management path of an employee up to the top of the hierarchy.
+     * Paths are served from the reverse adjacency of the OrgChartIndex. When the index is disabled, the ancestors of the
+     * employee are walked upward in the database, one findManagerIds lookup per ancestor, and paths are built from them.
+     *
+     * @param id Employee id
+     * @return Employee with its management paths
+     */
+    @Override
+    public ManagementChain managementChain(String id) {
+        LOG.debug("Fetching management chain of employee with id [{}]", id);
+
+        ManagementChain managementChain = new ManagementChain();
+        managementChain.setEmployee(read(id));
+        managementChain.setPaths(orgIndexEnabled ? orgChartIndex.managementPaths(id) : ancestorGraph(id).managementPaths(id));
+        return managementChain;
+    }
+
+    /**
+     * Builds the graph of an employee and all of its ancestors by looking up managers level by level
+     */
+    private OrgGraph ancestorGraph(String id) {
+        Map<String, List<String>> directReports = new HashMap<>();
+        Set<String> visited = new HashSet<>(Collections.singleton(id));
+        Deque<String> pending = new ArrayDeque<>(visited);
+        while (!pending.isEmpty()) {
+            String employeeId = pending.poll();
+            for (String managerId : employeeRepository.findManagerIds(employeeId)) {
+                directReports.computeIfAbsent(managerId, key -> new ArrayList<>()).add(employeeId);
+                if (visited.add(managerId)) {
+                    pending.add(managerId);
+                }
+            }
+        }
+
+        OrgGraph graph = new OrgGraph();
+        directReports.forEach(graph::loadDirectReports);
+        return graph;
+    }
+
+    /**
+     * Traverses the reporting tree under an employee depth first.
+     * Direct reports are fetched with $in queries over a window of siblings: when a direct report is expanded, the direct
+     * reports of it and of its following siblings are fetched together, up to challenge.traversal.frontier-batch-size ids,
+     * so there is one query per window of siblings rather than one per expanded employee.
+     * The path from the root to the current employee is held in memory, each employee on it with its direct reports and
+     * the fetched window of their direct reports, along with the ids of every expanded employee. Memory is therefore
+     * O(d * b) employees for depth d and batch size b, plus O(n) ids for n expanded employees.
+     * Employees reporting to multiple managers are visited with their reports once. Later occurrences are leaves.
+     *
+     * @param id       Employee id of the root of the tree
+     * @param maxDepth Maximum depth of visited reports. Direct reports of the root are at depth 1.
+     * @param fields   Employee fields to fetch. Null fetches all fields. Unknown fields are ignored.
+     * @param visitor  Visitor receiving employees while the tree is traversed
+     */
+    @Override
+    public void traverseReportingTree(String id, int maxDepth, Set<String> fields, ReportingTreeVisitor visitor) throws IOException {
+        LOG.debug("Traversing reporting tree of employee with id [{}] to depth [{}]", id, maxDepth);
+
+        Set<String> projectedFields = fields == null ? TREE_FIELDS
+                : fields.stream().filter(TREE_FIELDS::contains).collect(Collectors.toSet());
+        List<Employee> roots = employeeRepository.findEmployees(Collections.singleton(id), projectedFields);
+        if (roots.isEmpty()) {
+            throw new EmployeeNotFoundException("Invalid employeeId: " + id);
+        }
+
+        Set<String> visited = new HashSet<>();
+        Deque<ReportingTreeFrame> path = new ArrayDeque<>();
+        Employee root = roots.get(0);
+        if (startEmployee(root, 0, maxDepth, visited, visitor)) {
+            List<String> reportIds = directReportIds(root);
+            path.push(new ReportingTreeFrame(root, resolve(reportIds, fetchEmployees(reportIds, projectedFields))));
+        }
+
+        while (!path.isEmpty()) {
+            ReportingTreeFrame frame = path.peek();
+            if (frame.next == frame.directReports.size()) {
+                path.pop();
+                visitor.endEmployee(frame.employee, true);
+                continue;
+            }
+
+            Employee directReport = frame.directReports.get(frame.next);
+            if (startEmployee(directReport, path.size(), maxDepth, visited, visitor)) {
+                if (frame.next >= frame.fetchedUntil) {
+                    fetchWindow(frame, visited, projectedFields);
+                }
+                path.push(new ReportingTreeFrame(directReport, resolve(directReportIds(directReport), frame.fetched)));
+            }
+            frame.next++;
+        }
+    }
+
+    /**
+     * Passes employee to visitor, ending it right away if its reports are not visited
+     *
+     * @return True if direct reports of employee are visited next
+     */
+    private static boolean startEmployee(Employee employee, int depth, int maxDepth, Set<String> visited,
+                                         ReportingTreeVisitor visitor) throws IOException {
+        boolean visitsReports = depth < maxDepth && employee.getDirectReports() != null
+                && !employee.getDirectReports().isEmpty() && visited.add(employee.getEmployeeId());
+        visitor.startEmployee(employee, visitsReports);
+        if (!visitsReports) {
+            visitor.endEmployee(employee, false);
+        }
+        return visitsReports;
+    }
+
+    /**
+     * Fetches direct reports of the next direct report of frame and of its following siblings, skipping siblings already
+     * expanded, until challenge.traversal.frontier-batch-size ids are collected. The next direct report is always included.
+     */
+    private void fetchWindow(ReportingTreeFrame frame, Set<String> visited, Set<String> fields) {
+        Set<String> ids = new LinkedHashSet<>(directReportIds(frame.directReports.get(frame.next)));
+        int until = frame.next + 1;
+        while (until < frame.directReports.size()) {
+            Employee sibling = frame.directReports.get(until);
+            List<String> siblingReportIds = directReportIds(sibling);
+            if (!visited.contains(sibling.getEmployeeId())) {
+                if (ids.size() + siblingReportIds.size() > frontierBatchSize) {
+                    break;
+                }
+                ids.addAll(siblingReportIds);
+            }
+            until++;
+        }
+
+        frame.fetched = fetchEmployees(ids, fields);
+        frame.fetchedUntil = until;
+    }
+
+    /**
+     * Fetches employees with $in queries of up to challenge.traversal.frontier-batch-size ids
+     */
+    private Map<String, Employee> fetchEmployees(Collection<String> ids, Set<String> fields) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        int batchSize = Math.max(1, frontierBatchSize);
+        Map<String, Employee> employees = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += batchSize) {
+            for (Employee employee : employeeRepository.findEmployees(
+                    distinctIds.subList(from, Math.min(from + batchSize, distinctIds.size())), fields)) {
+                employees.put(employee.getEmployeeId(), employee);
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * Gets fetched employees in the order of ids. Employees that do not exist in DB are returned with their employeeId only.
+     */
+    private static List<Employee> resolve(List<String> ids, Map<String, Employee> fetched) {
+        List<Employee> employees = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Employee employee = fetched.get(id);
+            if (employee == null) {
+                employee = new Employee();
+                employee.setEmployeeId(id);
+            }
+            employees.add(employee);
+        }
+        return employees;
+    }
+
+    private static List<String> directReportIds(Employee employee) {
+        if (employee.getDirectReports() == null) {
+            return Collections.emptyList();
+        }
+        return employee.getDirectReports().stream().map(Employee::getEmployeeId).collect(Collectors.toList());
+    }
+
+    /**
+     * Bumps versions of a created or updated employee and of the employees whose number of reports may have changed,
+     * which retires their cached report counts
+     */
+    private void changed(String id, Set<String> affected) {
+        LOG.debug("Bumping reporting structure versions of [{}] employees", affected.size());
+
+        versionService.employeeChanged(id);
+        versionService.reportsChanged(affected);
+    }
+
+    /**
+     * Employee on the path of a reporting tree traversal, along with its direct reports and the fetched window of their
+     * direct reports
+     */
+    private static class ReportingTreeFrame {
+        private final Employee employee;
+        private final List<Employee> directReports;
+
+        /**
+         * Index of the next direct report to visit
+         */
+        private int next;
+
+        /**
+         * Direct reports of the direct reports before fetchedUntil, by id
+         */
+        private Map<String, Employee> fetched = Collections.emptyMap();
+        private int fetchedUntil;
+
+        private ReportingTreeFrame(Employee employee, List<Employee> directReports) {
+            this.employee = employee;
+            this.directReports = directReports;
+        }
     }
 }
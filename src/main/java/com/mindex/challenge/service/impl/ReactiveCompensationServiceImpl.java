@@ -0,0 +1,75 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.config.CacheConfig;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.exception.CompensationNotFoundException;
+import com.mindex.challenge.service.ReactiveCompensationService;
+import com.mindex.challenge.service.VersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+/**
+ * Non-blocking variant of CompensationService used by the reactive profile
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCompensationServiceImpl implements ReactiveCompensationService {
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveCompensationServiceImpl.class);
+
+    @Autowired
+    private ReactiveMongoOperations reactiveMongoOperations;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private VersionService versionService;
+
+    @Override
+    public Mono<Compensation> create(Compensation compensation) {
+        LOG.debug("Creating compensation [{}]", compensation);
+
+        return reactiveMongoOperations.insert(compensation)
+                .doOnNext(created -> {
+                    cacheManager.getCache(CacheConfig.COMPENSATION_TIMELINES).evict(created.getEmployeeId());
+                    versionService.compensationChanged(created.getEmployeeId());
+                });
+    }
+
+    @Override
+    public Flux<Compensation> read(String id) {
+        LOG.debug("Reading compensations of employee with id [{}]", id);
+
+        return reactiveMongoOperations.find(new Query(Criteria.where("employeeId").is(id)), Compensation.class);
+    }
+
+    /**
+     * Gets compensation of an employee in effect at a point in time with the (employeeId, effectiveDate desc) index and a limit of 1
+     *
+     * @param id   Employee id
+     * @param asOf Point in time
+     * @return Compensation with the latest effective date not after asOf
+     */
+    @Override
+    public Mono<Compensation> readCurrent(String id, Date asOf) {
+        LOG.debug("Reading compensation of employee with id [{}] as of [{}]", id, asOf);
+
+        Query query = new Query(Criteria.where("employeeId").is(id).and("effectiveDate").lte(asOf))
+                .with(Sort.by(Sort.Direction.DESC, "effectiveDate"));
+        return reactiveMongoOperations.findOne(query, Compensation.class)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new CompensationNotFoundException(
+                        "No compensation in effect for employeeId: " + id + " as of " + asOf))));
+    }
+}
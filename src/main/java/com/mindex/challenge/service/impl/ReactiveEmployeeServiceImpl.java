@@ -0,0 +1,170 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.config.CacheConfig;
+import com.mindex.challenge.dao.impl.EmployeeRepositoryCustomImpl;
+import com.mindex.challenge.dao.impl.EmployeeStorage;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.exception.EmployeeNotFoundException;
+import com.mindex.challenge.graph.OrgChartIndex;
+import com.mindex.challenge.service.ReactiveEmployeeService;
+import com.mindex.challenge.service.VersionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Non-blocking variant of EmployeeService used by the reactive profile.
+ * Database calls go through ReactiveMongoOperations, so no thread waits on Mongo while a request is in flight. The
+ * employees and report count caches and the OrgChartIndex are shared with the blocking stack. Writes go through
+ * EmployeeStorage#save, and the OrgChartIndex and caches are updated on the bounded elastic scheduler.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveEmployeeServiceImpl.class);
+
+    @Autowired
+    private ReactiveMongoOperations reactiveMongoOperations;
+
+    @Autowired
+    private EmployeeStorage employeeStorage;
+
+    @Autowired
+    private OrgChartIndex orgChartIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private VersionService versionService;
+
+    /**
+     * When enabled, number of reports is served from the in-memory OrgChartIndex. Otherwise the hierarchy is traversed in the database.
+     */
+    @Value("${challenge.org-index.enabled:true}")
+    private boolean orgIndexEnabled;
+
+    @Value("${challenge.traversal.frontier-batch-size:10000}")
+    private int frontierBatchSize;
+
+    @Override
+    public Mono<Employee> create(Employee employee) {
+        LOG.debug("Creating employee [{}]", employee);
+
+        employee.setEmployeeId(UUID.randomUUID().toString());
+        return employeeStorage.save(employee, true).flatMap(this::indexed);
+    }
+
+    @Override
+    public Mono<Employee> read(String id) {
+        LOG.debug("Reading employee with id [{}]", id);
+
+        Cache employees = cacheManager.getCache(CacheConfig.EMPLOYEES);
+        return Mono.justOrEmpty(employees.get(id, Employee.class))
+                .switchIfEmpty(reactiveMongoOperations.findById(id, Employee.class)
+                        .doOnNext(employee -> employees.put(id, employee)))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new EmployeeNotFoundException("Invalid employeeId: " + id))));
+    }
+
+    /**
+     * Updates employee. The cached employee is replaced and versions of the employee and reporting structure versions of
+     * all of its ancestors are bumped, which retires its cached direct reports and their cached report counts.
+     *
+     * @param employee Employee object
+     * @return Updated Employee object
+     */
+    @Override
+    public Mono<Employee> update(Employee employee) {
+        LOG.debug("Updating employee [{}]", employee);
+
+        return employeeStorage.save(employee, false).flatMap(this::indexed);
+    }
+
+    /**
+     * Gets number of reports of an employee.
+     * With the OrgChartIndex the count is read from memory. Otherwise the hierarchy is walked one level at a time, each
+     * level fetched with $in queries of up to challenge.traversal.frontier-batch-size ids, without blocking any thread.
+     * Counts are cached under the reporting structure version of the employee. See CacheConfig#reportCountKey.
+     *
+     * @param id Employee id
+     * @return Number of distinct reports
+     */
+    @Override
+    public Mono<Integer> numberOfReports(String id) {
+        LOG.debug("Fetching number of reports of employee with id [{}]", id);
+
+        return Mono.defer(() -> {
+            Cache reportCounts = cacheManager.getCache(CacheConfig.REPORT_COUNTS);
+            String key = CacheConfig.reportCountKey(id, versionService.reportingStructureETag(id));
+            Mono<Integer> count = orgIndexEnabled
+                    // The index may be loaded from the database on first use
+                    ? Mono.fromCallable(() -> orgChartIndex.numberOfReports(id)).subscribeOn(Schedulers.boundedElastic())
+                    : countReports(id);
+            return Mono.justOrEmpty(reportCounts.get(key, Integer.class))
+                    .switchIfEmpty(count.doOnNext(numberOfReports -> reportCounts.put(key, numberOfReports)));
+        });
+    }
+
+    /**
+     * Counts distinct employees reachable below an employee with a level-synchronous breadth first traversal
+     */
+    private Mono<Integer> countReports(String rootId) {
+        Set<String> visited = ConcurrentHashMap.newKeySet();
+        visited.add(rootId);
+
+        return Mono.just(Collections.singletonList(rootId))
+                .expand(frontier -> frontier.isEmpty() ? Mono.empty() : directReportIds(frontier).filter(visited::add).collectList())
+                .then(Mono.fromCallable(() -> {
+                    EmployeeRepositoryCustomImpl.traversalNodes(meterRegistry).record(visited.size());
+                    return visited.size() - 1;
+                }));
+    }
+
+    /**
+     * Fetches direct report ids of every employee in frontier, projecting only the ids of direct reports
+     */
+    private Flux<String> directReportIds(List<String> frontier) {
+        return Flux.fromIterable(frontier).buffer(Math.max(1, frontierBatchSize)).concatMap(batch -> {
+            Query query = new Query(Criteria.where("employeeId").in(batch));
+            query.fields().include("employeeId").include(employeeStorage.directReportIdsField());
+            return reactiveMongoOperations.find(query, Employee.class);
+        }).flatMapIterable(employee -> employee.getDirectReports() == null
+                ? Collections.<Employee>emptyList() : employee.getDirectReports()).map(Employee::getEmployeeId);
+    }
+
+    /**
+     * Applies persisted employee to the OrgChartIndex and caches, bumping versions of the employee and its ancestors.
+     * The index takes a lock and may load from or query the database, so this runs on the bounded elastic scheduler.
+     */
+    private Mono<Employee> indexed(Employee employee) {
+        return Mono.fromCallable(() -> {
+            Set<String> affected = orgChartIndex.put(employee);
+            versionService.employeeChanged(employee.getEmployeeId());
+            versionService.reportsChanged(affected);
+            cacheManager.getCache(CacheConfig.EMPLOYEES).put(employee.getEmployeeId(), employee);
+            return employee;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+}
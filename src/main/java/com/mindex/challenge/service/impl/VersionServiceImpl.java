@@ -0,0 +1,100 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.service.VersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters of employee, reporting structure and compensation resources, used as weak ETags.
+ * The same version is served as JSON, Smile or CBOR, compressed or not, so the ETag identifies the version and not the bytes.
+ * Only resources changed since startup have an entry, holding a value of a global sequence. Unchanged resources are at
+ * version 0. Every ETag carries the epoch of the current generation, which is random per process and replaced by
+ * resetAll, so ETags never match across restarts or bulk imports.
+ * Controllers take the ETag before reading the resource, so a response is never labelled with a newer version than its body,
+ * Employee controllers check it only once the employee is found, so errors for unknown ids, which are also at version 0,
+ * carry no ETag that a later employee with the same id could match.
+ */
+@Service
+public class VersionServiceImpl implements VersionService {
+    private static final Logger LOG = LoggerFactory.getLogger(VersionServiceImpl.class);
+
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Generation generation = new Generation();
+
+    @Override
+    public String employeeETag(String employeeId) {
+        Generation current = generation;
+        return current.eTag(current.employees, employeeId);
+    }
+
+    @Override
+    public String reportingStructureETag(String employeeId) {
+        Generation current = generation;
+        return current.eTag(current.reportingStructures, employeeId);
+    }
+
+    @Override
+    public String compensationETag(String employeeId) {
+        Generation current = generation;
+        return current.eTag(current.compensations, employeeId);
+    }
+
+    /**
+     * Bumps versions of the employee and of its reporting structure, which embeds it
+     *
+     * @param employeeId Employee id
+     */
+    @Override
+    public void employeeChanged(String employeeId) {
+        Generation current = generation;
+        current.employees.put(employeeId, sequence.incrementAndGet());
+        current.reportingStructures.put(employeeId, sequence.incrementAndGet());
+    }
+
+    /**
+     * Bumps versions of reporting structures whose number of reports may have changed
+     *
+     * @param employeeIds Ids of the changed employee and its ancestors
+     */
+    @Override
+    public void reportsChanged(Collection<String> employeeIds) {
+        Generation current = generation;
+        employeeIds.forEach(employeeId -> current.reportingStructures.put(employeeId, sequence.incrementAndGet()));
+    }
+
+    @Override
+    public void compensationChanged(String employeeId) {
+        generation.compensations.put(employeeId, sequence.incrementAndGet());
+    }
+
+    /**
+     * Invalidates every ETag issued so far, e.g. after a bulk import
+     */
+    @Override
+    public void resetAll() {
+        LOG.debug("Resetting all resource versions");
+
+        generation = new Generation();
+    }
+
+    /**
+     * Versions of resources changed since the generation started
+     */
+    private static class Generation {
+        private final String epoch = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+        private final Map<String, Long> employees = new ConcurrentHashMap<>();
+        private final Map<String, Long> reportingStructures = new ConcurrentHashMap<>();
+        private final Map<String, Long> compensations = new ConcurrentHashMap<>();
+
+        private String eTag(Map<String, Long> versions, String id) {
+            return "W/\"" + epoch + "-" + versions.getOrDefault(id, 0L) + "\"";
+        }
+    }
+}
@@ -5,11 +5,13 @@ import com.mindex.challenge.data.Employee;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 import static org.junit.Assert.assertEquals;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
@@ -18,6 +20,9 @@ public class DataBootstrapTest {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private DataBootstrap dataBootstrap;
+
     @Test
     public void test() {
         Employee employee = employeeRepository.findByEmployeeId("16a596ae-edd3-4847-99fe-c4518e82c86f");
@@ -27,4 +32,21 @@ public class DataBootstrapTest {
         assertEquals("Development Manager", employee.getPosition());
         assertEquals("Engineering", employee.getDepartment());
     }
+
+    @Test
+    public void testReady() {
+        assertTrue(dataBootstrap.isReady());
+        assertEquals(Status.UP, dataBootstrap.health().getStatus());
+    }
+
+    @Test
+    public void testSkipWhenPresent() {
+        long count = employeeRepository.count();
+
+        // Seed employees already exist, so they are not imported again and rejected as duplicates
+        dataBootstrap.init();
+
+        assertEquals(count, employeeRepository.count());
+        assertTrue(dataBootstrap.isReady());
+    }
 }
\ No newline at end of file
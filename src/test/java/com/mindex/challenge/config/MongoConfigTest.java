@@ -0,0 +1,72 @@
+package com.mindex.challenge.config;
+
+import com.mindex.challenge.ChallengeApplication;
+import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.graph.OrgChartIndex;
+import com.mindex.challenge.service.EmployeeService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class MongoConfigTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testH2BackendSurvivesRestart() throws Exception {
+        File file = new File(folder.getRoot(), "challenge.mv");
+        File snapshot = new File(folder.getRoot(), "org-chart.snapshot");
+
+        Employee created;
+        long count;
+        try (ConfigurableApplicationContext context = start(file, snapshot)) {
+            Employee employee = new Employee();
+            employee.setFirstName("Persisted");
+            created = context.getBean(EmployeeService.class).create(employee);
+            count = context.getBean(EmployeeRepository.class).count();
+        }
+        assertTrue(snapshot.exists());
+
+        try (ConfigurableApplicationContext context = start(file, snapshot)) {
+            EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+            Employee read = employeeRepository.findByEmployeeId(created.getEmployeeId());
+
+            assertNotNull(read);
+            assertEquals("Persisted", read.getFirstName());
+            // Seed employees are not loaded again
+            assertEquals(count, employeeRepository.count());
+
+            // The index is served from the snapshot written on shutdown until the first change
+            OrgChartIndex orgChartIndex = context.getBean(OrgChartIndex.class);
+            assertEquals(4, orgChartIndex.numberOfReports("16a596ae-edd3-4847-99fe-c4518e82c86f"));
+            orgChartIndex.put(read);
+            assertFalse(snapshot.exists());
+            assertEquals(4, orgChartIndex.numberOfReports("16a596ae-edd3-4847-99fe-c4518e82c86f"));
+        }
+        assertTrue(snapshot.delete());
+
+        // Shutdown does not load the index to write a snapshot
+        start(file, snapshot).close();
+        assertFalse(snapshot.exists());
+    }
+
+    private static ConfigurableApplicationContext start(File file, File snapshot) {
+        return new SpringApplicationBuilder(ChallengeApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("challenge.mongo.backend=h2", "challenge.mongo.h2.file=" + file.getAbsolutePath(),
+                        "challenge.snapshot.file=" + snapshot.getAbsolutePath())
+                .run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.mindex.challenge.dao.impl;
+
+import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.Employee;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class EmployeeRepositoryCustomImplTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PrometheusMeterRegistry meterRegistry;
+
+    @Test
+    public void testFindDirectReportIds() {
+        Employee root = insertEmployee();
+        Employee report = insertEmployee();
+        root.setDirectReports(Collections.singletonList(report));
+        employeeRepository.save(root);
+
+        Map<String, List<String>> directReportIds = employeeRepository.findDirectReportIds(
+                Arrays.asList(root.getEmployeeId(), report.getEmployeeId(), "unknown"));
+
+        assertEquals(Collections.singletonList(report.getEmployeeId()), directReportIds.get(root.getEmployeeId()));
+        assertEquals(Collections.emptyList(), directReportIds.get(report.getEmployeeId()));
+        assertFalse(directReportIds.containsKey("unknown"));
+    }
+
+    @Test
+    public void testGetNumberOfReports() {
+        //      root
+        //      /   \
+        //     A ->  B
+        //           |
+        //           C
+        Employee root = insertEmployee();
+        Employee a = insertEmployee();
+        Employee b = insertEmployee();
+        Employee c = insertEmployee();
+        root.setDirectReports(Arrays.asList(a, b));
+        a.setDirectReports(Collections.singletonList(b));
+        b.setDirectReports(Collections.singletonList(c));
+        employeeRepository.saveAll(Arrays.asList(root, a, b));
+
+        assertEquals(3, employeeRepository.getNumberOfReports(root.getEmployeeId()).intValue());
+        assertEquals(2, employeeRepository.getNumberOfReports(a.getEmployeeId()).intValue());
+        assertEquals(0, employeeRepository.getNumberOfReports(c.getEmployeeId()).intValue());
+    }
+
+    @Test
+    public void testMetrics() {
+        Employee root = insertEmployee();
+        root.setDirectReports(Collections.singletonList(insertEmployee()));
+        employeeRepository.save(root);
+
+        long traversals = meterRegistry.summary(EmployeeRepositoryCustomImpl.TRAVERSAL_NODES_METRIC).count();
+        employeeRepository.getNumberOfReports(root.getEmployeeId());
+
+        assertEquals(traversals + 1, meterRegistry.summary(EmployeeRepositoryCustomImpl.TRAVERSAL_NODES_METRIC).count());
+        assertTrue(meterRegistry.get(TimedMongoRepositoryFactoryBean.METRIC)
+                .tag("repository", "EmployeeRepository").tag("method", "getNumberOfReports").timer().count() > 0);
+
+        String scrape = meterRegistry.scrape();
+        assertTrue(scrape.contains("challenge_repository_seconds_bucket"));
+        assertTrue(scrape.contains("challenge_traversal_nodes_employees_bucket"));
+        assertTrue(scrape.contains("mongodb_driver_commands_seconds"));
+    }
+
+    @Test
+    public void testFindManagerIds() {
+        Employee root = insertEmployee();
+        Employee a = insertEmployee();
+        Employee b = insertEmployee();
+        root.setDirectReports(Arrays.asList(a, b));
+        a.setDirectReports(Collections.singletonList(b));
+        employeeRepository.saveAll(Arrays.asList(root, a));
+
+        assertEquals(new HashSet<>(Arrays.asList(root.getEmployeeId(), a.getEmployeeId())),
+                new HashSet<>(employeeRepository.findManagerIds(b.getEmployeeId())));
+        assertEquals(Collections.emptyList(), employeeRepository.findManagerIds(root.getEmployeeId()));
+    }
+
+    private Employee insertEmployee() {
+        Employee employee = new Employee();
+        employee.setEmployeeId(UUID.randomUUID().toString());
+        return employeeRepository.insert(employee);
+    }
+}
@@ -0,0 +1,158 @@
+package com.mindex.challenge.dao.impl;
+
+import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.Employee;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "challenge.storage.direct-reports=ids")
+public class EmployeeStorageTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeStorage employeeStorage;
+
+    @Autowired
+    private MongoOperations mongoOperations;
+
+    @Autowired
+    private ReactiveMongoOperations reactiveMongoOperations;
+
+    @Test
+    public void testSaveStoresIdReferences() {
+        Employee manager = insertEmployee();
+        Employee a = insertEmployee();
+        Employee b = insertEmployee();
+        manager.setDirectReports(Arrays.asList(a, b));
+        employeeRepository.save(manager);
+
+        Document stored = collection().find(Filters.eq("_id", manager.getEmployeeId())).first();
+        assertEquals(Arrays.asList(a.getEmployeeId(), b.getEmployeeId()), stored.get("directReports"));
+        assertEquals(Collections.singletonList(manager.getEmployeeId()), employeeRepository.findManagerIds(a.getEmployeeId()));
+
+        Employee read = employeeRepository.findByEmployeeId(manager.getEmployeeId());
+        assertEquals(b.getEmployeeId(), read.getDirectReports().get(1).getEmployeeId());
+        assertEquals(2, employeeRepository.getNumberOfReports(manager.getEmployeeId()).intValue());
+
+        manager.setDirectReports(Collections.singletonList(b));
+        employeeRepository.save(manager);
+
+        assertEquals(Collections.emptyList(), employeeRepository.findManagerIds(a.getEmployeeId()));
+        assertEquals(Collections.singletonList(manager.getEmployeeId()), employeeRepository.findManagerIds(b.getEmployeeId()));
+    }
+
+    @Test
+    public void testInsertFindsExistingManagers() {
+        String reportId = UUID.randomUUID().toString();
+        Employee manager = new Employee();
+        manager.setEmployeeId(UUID.randomUUID().toString());
+        Employee report = new Employee();
+        report.setEmployeeId(reportId);
+        manager.setDirectReports(Collections.singletonList(report));
+        employeeRepository.insert(manager);
+
+        employeeRepository.insert(report);
+
+        assertEquals(Collections.singletonList(manager.getEmployeeId()), employeeRepository.findManagerIds(reportId));
+    }
+
+    @Test
+    public void testReactiveSaveStoresIdReferences() {
+        Employee manager = insertEmployee();
+        Employee a = insertEmployee();
+        Employee b = new Employee();
+        b.setEmployeeId(UUID.randomUUID().toString());
+        employeeStorage.save(b, true).block();
+        manager.setDirectReports(Arrays.asList(a, b));
+        employeeStorage.save(manager, false).block();
+
+        Document stored = collection().find(Filters.eq("_id", manager.getEmployeeId())).first();
+        assertEquals(Arrays.asList(a.getEmployeeId(), b.getEmployeeId()), stored.get("directReports"));
+        assertEquals(Collections.singletonList(manager.getEmployeeId()), employeeRepository.findManagerIds(b.getEmployeeId()));
+        assertEquals(b.getEmployeeId(), employeeRepository.findByEmployeeId(manager.getEmployeeId()).getDirectReports().get(1).getEmployeeId());
+
+        manager.setDirectReports(Collections.singletonList(b));
+        employeeStorage.save(manager, false).block();
+
+        assertEquals(Collections.emptyList(), employeeRepository.findManagerIds(a.getEmployeeId()));
+        assertEquals(Collections.singletonList(manager.getEmployeeId()), employeeRepository.findManagerIds(b.getEmployeeId()));
+
+        // Managers listing an employee before it is inserted are found on insert
+        Employee report = new Employee();
+        report.setEmployeeId(UUID.randomUUID().toString());
+        a.setDirectReports(Collections.singletonList(report));
+        employeeStorage.save(a, false).block();
+        employeeStorage.save(report, true).block();
+
+        assertEquals(Collections.singletonList(a.getEmployeeId()), employeeRepository.findManagerIds(report.getEmployeeId()));
+    }
+
+    @Test
+    public void testMigrate() {
+        String managerId = UUID.randomUUID().toString();
+        String reportId = UUID.randomUUID().toString();
+        collection().insertOne(new Document("_id", managerId)
+                .append("directReports", Collections.singletonList(new Document("_id", reportId))));
+        collection().insertOne(new Document("_id", reportId));
+
+        employeeStorage.migrate();
+
+        Document stored = collection().find(Filters.eq("_id", managerId)).first();
+        assertEquals(Collections.singletonList(reportId), stored.get("directReports"));
+        assertEquals(Collections.emptyList(), stored.get("managerIds"));
+        assertEquals(Collections.singletonList(managerId), employeeRepository.findManagerIds(reportId));
+    }
+
+    @Test
+    public void testMigrate_in_pages() {
+        // Chain of embedded direct reports spanning several pages of 2
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            Document document = new Document("_id", ids.get(i));
+            if (i + 1 < ids.size()) {
+                document.append("directReports", Collections.singletonList(new Document("_id", ids.get(i + 1))));
+            }
+            collection().insertOne(document);
+        }
+
+        new EmployeeStorage(mongoOperations, reactiveMongoOperations, EmployeeStorage.Mode.IDS, 2).migrate();
+
+        for (int i = 0; i < ids.size(); i++) {
+            Document stored = collection().find(Filters.eq("_id", ids.get(i))).first();
+            assertEquals(i + 1 < ids.size() ? Collections.singletonList(ids.get(i + 1)) : null, stored.get("directReports"));
+            assertEquals(i > 0 ? Collections.singletonList(ids.get(i - 1)) : Collections.emptyList(), stored.get("managerIds"));
+        }
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoOperations.getCollection(mongoOperations.getCollectionName(Employee.class));
+    }
+
+    private Employee insertEmployee() {
+        Employee employee = new Employee();
+        employee.setEmployeeId(UUID.randomUUID().toString());
+        return employeeRepository.insert(employee);
+    }
+}
@@ -0,0 +1,102 @@
+package com.mindex.challenge.dao.impl;
+
+import com.mindex.challenge.config.VirtualThreads;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class HierarchyTraversalTest {
+
+    private HierarchyTraversal hierarchyTraversal;
+
+    @Before
+    public void setup() {
+        hierarchyTraversal = new HierarchyTraversal(8);
+    }
+
+    @After
+    public void teardown() {
+        hierarchyTraversal.shutdown();
+    }
+
+    @Test
+    public void testCountReports() {
+        //      root
+        //      /   \
+        //     A ->  B
+        //    /\     |
+        //  C   D    E
+        Map<String, List<String>> reports = new HashMap<>();
+        reports.put("root", Arrays.asList("A", "B"));
+        reports.put("A", Arrays.asList("C", "D", "B"));
+        reports.put("B", Collections.singletonList("E"));
+
+        assertEquals(5, hierarchyTraversal.countReports("root", 4, lookup(reports)));
+        assertEquals(4, hierarchyTraversal.countReports("A", 4, lookup(reports)));
+        assertEquals(0, hierarchyTraversal.countReports("unknown", 4, lookup(reports)));
+        assertEquals(new HashSet<>(Arrays.asList("B", "C", "D", "E")),
+                new HashSet<>(hierarchyTraversal.findReports("A", 4, lookup(reports))));
+    }
+
+    @Test
+    public void testCountReports_wide_hierarchy_with_shared_reports() {
+        // 1000 managers under root all sharing the same 100 reports. Counts must be stable across runs.
+        Map<String, List<String>> reports = new HashMap<>();
+        List<String> managers = new ArrayList<>();
+        List<String> shared = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            shared.add("shared-" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            managers.add("manager-" + i);
+            reports.put("manager-" + i, shared);
+        }
+        reports.put("root", managers);
+
+        for (int run = 0; run < 20; run++) {
+            assertEquals(1100, hierarchyTraversal.countReports("root", 4, lookup(reports)));
+        }
+    }
+
+    @Test
+    public void testCountReports_virtual_threads() {
+        assumeTrue(VirtualThreads.isSupported());
+
+        Map<String, List<String>> reports = new HashMap<>();
+        List<String> managers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            managers.add("manager-" + i);
+            reports.put("manager-" + i, Collections.singletonList("report-" + i));
+        }
+        reports.put("root", managers);
+
+        HierarchyTraversal virtualThreadTraversal = new HierarchyTraversal(0, true);
+        try {
+            assertEquals(2000, virtualThreadTraversal.countReports("root", 4, lookup(reports)));
+        } finally {
+            virtualThreadTraversal.shutdown();
+        }
+    }
+
+    private static Function<List<String>, List<String>> lookup(Map<String, List<String>> reports) {
+        return ids -> {
+            List<String> directReportIds = new ArrayList<>();
+            for (String id : ids) {
+                directReportIds.addAll(reports.getOrDefault(id, Collections.emptyList()));
+            }
+            return directReportIds;
+        };
+    }
+}
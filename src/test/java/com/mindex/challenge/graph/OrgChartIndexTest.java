@@ -0,0 +1,102 @@
+package com.mindex.challenge.graph;
+
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.service.CompensationService;
+import com.mindex.challenge.service.EmployeeService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "challenge.org-index.enabled=false")
+public class OrgChartIndexTest {
+
+    @Autowired
+    private OrgChartIndex orgChartIndex;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CompensationService compensationService;
+
+    @Test
+    public void testDisabledIndexIsNotLoadedByWrites() {
+        Employee director = employeeService.create(new Employee());
+        Employee manager = employeeService.create(new Employee());
+        Employee report = employeeService.create(new Employee());
+        director.setDirectReports(Collections.singletonList(manager));
+        employeeService.update(director);
+        assertEquals(1, employeeService.numberOfReports(director.getEmployeeId()).intValue());
+
+        // Cached count of the director is replaced, as its ancestors are found in the database
+        manager.setDirectReports(Collections.singletonList(report));
+        employeeService.update(manager);
+
+        assertEquals(2, employeeService.numberOfReports(director.getEmployeeId()).intValue());
+        assertFalse(orgChartIndex.isLoaded());
+    }
+
+    @Test
+    public void testConcurrentUpdatesDoNotCacheStaleDirectReports() throws Exception {
+        Employee manager = employeeService.create(new Employee());
+        Employee a = employeeService.create(new Employee());
+        Employee b = employeeService.create(new Employee());
+
+        // Counts of the manager are read from the database, through the directReports cache, while it is updated
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(executor.submit(() -> {
+                while (!done.get()) {
+                    employeeService.numberOfReports(manager.getEmployeeId());
+                }
+            }));
+        }
+        try {
+            for (int i = 0; i < 100; i++) {
+                manager.setDirectReports(i % 2 == 0 ? Collections.singletonList(a) : Arrays.asList(a, b));
+                employeeService.update(manager);
+                assertEquals(i % 2 == 0 ? 1 : 2, employeeService.numberOfReports(manager.getEmployeeId()).intValue());
+            }
+        } finally {
+            done.set(true);
+            executor.shutdown();
+        }
+        for (Future<?> reader : readers) {
+            reader.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testDisabledIndexIsNotLoadedByRollup() {
+        Employee manager = employeeService.create(new Employee());
+        Employee a = employeeService.create(new Employee());
+        Employee b = employeeService.create(new Employee());
+        manager.setDirectReports(Arrays.asList(a, b));
+        employeeService.update(manager);
+        compensationService.create(new Compensation(a.getEmployeeId(), new Date(1000), 100D));
+
+        assertEquals(2, compensationService.rollup(manager.getEmployeeId(), new Date()).getNumberOfReports().intValue());
+        assertEquals(1, compensationService.rollup(manager.getEmployeeId(), new Date()).getCompensatedReports().intValue());
+        assertFalse(orgChartIndex.isLoaded());
+    }
+}
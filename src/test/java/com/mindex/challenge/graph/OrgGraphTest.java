@@ -0,0 +1,207 @@
+package com.mindex.challenge.graph;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class OrgGraphTest {
+
+    private OrgGraph graph;
+
+    @Before
+    public void setup() {
+        // Create employee tree
+        //      root
+        //      /   \
+        //     A     B
+        //    /\     |
+        //  C   D    E
+        //     / \
+        //    F   G
+        graph = new OrgGraph();
+        graph.setDirectReports("root", Arrays.asList("A", "B"));
+        graph.setDirectReports("A", Arrays.asList("C", "D"));
+        graph.setDirectReports("B", Collections.singletonList("E"));
+        graph.setDirectReports("D", Arrays.asList("F", "G"));
+    }
+
+    @Test
+    public void testLoadDirectReports() {
+        OrgGraph loaded = new OrgGraph();
+        loaded.loadDirectReports("D", Arrays.asList("F", "G"));
+        loaded.loadDirectReports("root", Arrays.asList("A", "B"));
+        loaded.loadDirectReports("A", Arrays.asList("C", "D", "B"));
+        loaded.loadDirectReports("B", Collections.singletonList("E"));
+        loaded.recomputeReportCounts();
+
+        assertEquals(7, loaded.countReports("root"));
+        assertEquals(6, loaded.countReports("A"));
+        assertEquals(2, loaded.countReports("D"));
+    }
+
+    @Test
+    public void testCountReports() {
+        assertEquals(7, graph.countReports("root"));
+        assertEquals(4, graph.countReports("A"));
+        assertEquals(1, graph.countReports("B"));
+        assertEquals(0, graph.countReports("G"));
+        assertEquals(0, graph.countReports("unknown"));
+    }
+
+    @Test
+    public void testCountReports_with_multiple_parents() {
+        // Adding B as direct report of A. B and E are counted once under root.
+        graph.setDirectReports("A", Arrays.asList("C", "D", "B"));
+
+        assertEquals(6, graph.countReports("A"));
+        assertEquals(7, graph.countReports("root"));
+    }
+
+    @Test
+    public void testSetDirectReports_removes_shared_report() {
+        graph.setDirectReports("A", Arrays.asList("C", "D", "B"));
+        // B and E are still reachable from root through its own edge to B
+        graph.setDirectReports("root", Collections.singletonList("A"));
+        assertEquals(7, graph.countReports("root"));
+
+        graph.setDirectReports("A", Arrays.asList("C", "D"));
+        assertEquals(5, graph.countReports("root"));
+        assertEquals(4, graph.countReports("A"));
+        assertEquals(1, graph.countReports("B"));
+    }
+
+    @Test
+    public void testSetDirectReports_with_cycle() {
+        graph.setDirectReports("G", Collections.singletonList("A"));
+
+        assertEquals(7, graph.countReports("root"));
+        assertEquals(4, graph.countReports("A"));
+        assertEquals(4, graph.countReports("G"));
+    }
+
+    @Test
+    public void testSetDirectReports_matches_recompute() {
+        // Apply random updates to a DAG and compare incrementally maintained counts with counts computed from scratch
+        Random random = new Random(42);
+        Map<String, List<String>> reports = new HashMap<>();
+        OrgGraph incremental = new OrgGraph();
+
+        for (int update = 0; update < 500; update++) {
+            int manager = random.nextInt(60);
+            List<String> reportIds = new ArrayList<>();
+            for (int i = random.nextInt(5); i > 0; i--) {
+                // Reports always have a higher number than their manager, which keeps the graph acyclic
+                reportIds.add(String.valueOf(manager + 1 + random.nextInt(40)));
+            }
+            reports.put(String.valueOf(manager), reportIds);
+            incremental.setDirectReports(String.valueOf(manager), reportIds);
+        }
+
+        OrgGraph recomputed = new OrgGraph();
+        reports.forEach(recomputed::loadDirectReports);
+        recomputed.recomputeReportCounts();
+
+        for (int i = 0; i < incremental.size(); i++) {
+            String id = incremental.id(i);
+            assertEquals(recomputed.countReports(id), incremental.countReports(id));
+        }
+    }
+
+    @Test
+    public void testRecomputeReportCounts_matches_traversal() {
+        // Random graphs with multiple managers and cycles, where counts are summed, traversed or both
+        Random random = new Random(7);
+        for (int trial = 0; trial < 200; trial++) {
+            int size = 1 + random.nextInt(60);
+            OrgGraph loaded = new OrgGraph();
+            for (int employee = 0; employee < size; employee++) {
+                List<String> reportIds = new ArrayList<>();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    // Mostly reports with a higher number, with an occasional edge back up the hierarchy
+                    int report = random.nextInt(10) == 0 ? random.nextInt(size) : employee + 1 + random.nextInt(size);
+                    if (report < size) {
+                        reportIds.add(String.valueOf(report));
+                    }
+                }
+                loaded.loadDirectReports(String.valueOf(employee), reportIds);
+            }
+            loaded.recomputeReportCounts();
+
+            for (int i = 0; i < loaded.size(); i++) {
+                String id = loaded.id(i);
+                assertEquals(loaded.reports(id).size(), loaded.countReports(id));
+            }
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testRecomputeReportCounts_deep_chain() {
+        // A chain above a diamond is summed level by level instead of traversed from every employee
+        int size = 100000;
+        OrgGraph loaded = new OrgGraph();
+        for (int i = 0; i + 1 < size; i++) {
+            loaded.loadDirectReports(String.valueOf(i), Collections.singletonList(String.valueOf(i + 1)));
+        }
+        loaded.loadDirectReports(String.valueOf(size - 1), Arrays.asList("left", "right"));
+        loaded.loadDirectReports("left", Collections.singletonList("bottom"));
+        loaded.loadDirectReports("right", Collections.singletonList("bottom"));
+        loaded.recomputeReportCounts();
+
+        assertEquals(size + 2, loaded.countReports("0"));
+        assertEquals(3, loaded.countReports(String.valueOf(size - 1)));
+    }
+
+    @Test
+    public void testSelfAndAncestors() {
+        graph.setDirectReports("A", Arrays.asList("C", "D", "B"));
+
+        assertEquals(new HashSet<>(Arrays.asList("E", "B", "A", "root")), graph.selfAndAncestors("E"));
+        assertEquals(Collections.singleton("root"), graph.selfAndAncestors("root"));
+        assertEquals(Collections.singleton("unknown"), graph.selfAndAncestors("unknown"));
+    }
+
+    @Test
+    public void testReports() {
+        graph.setDirectReports("B", Arrays.asList("E", "D"));
+
+        assertEquals(new HashSet<>(Arrays.asList("D", "E", "F", "G")), new HashSet<>(graph.reports("B")));
+        assertEquals(7, graph.reports("root").size());
+        assertEquals(Collections.emptyList(), graph.reports("G"));
+        assertEquals(Collections.emptyList(), graph.reports("unknown"));
+    }
+
+    @Test
+    public void testManagementPaths() {
+        graph.setDirectReports("B", Arrays.asList("E", "D"));
+
+        assertEquals(Arrays.asList(Arrays.asList("D", "A", "root"), Arrays.asList("D", "B", "root")), graph.managementPaths("G"));
+        assertEquals(Collections.singletonList(Collections.singletonList("root")), graph.managementPaths("A"));
+        assertEquals(Collections.emptyList(), graph.managementPaths("root"));
+        assertEquals(Collections.emptyList(), graph.managementPaths("unknown"));
+    }
+
+    @Test
+    public void testManagementPaths_ignores_cycles() {
+        graph.setDirectReports("G", Collections.singletonList("A"));
+
+        assertEquals(Collections.singletonList(Arrays.asList("A", "root")), graph.managementPaths("C"));
+    }
+
+    @Test
+    public void testSetDirectReports_replaces_reports() {
+        graph.setDirectReports("A", Arrays.asList("C", "C"));
+
+        assertEquals(1, graph.countReports("A"));
+        assertEquals(4, graph.countReports("root"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.mindex.challenge.graph;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+
+public class OrgSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private OrgGraph graph;
+    private OrgSnapshot snapshot;
+
+    @Before
+    public void setup() throws IOException {
+        // Create employee tree, with G also reporting to B
+        //      root
+        //      /   \
+        //     A     B
+        //    /\     |\
+        //  C   D    E |
+        //     / \     |
+        //    F   G ---+
+        graph = new OrgGraph();
+        graph.setDirectReports("root", Arrays.asList("A", "B"));
+        graph.setDirectReports("A", Arrays.asList("C", "D"));
+        graph.setDirectReports("B", Arrays.asList("E", "G"));
+        graph.setDirectReports("D", Arrays.asList("F", "G"));
+
+        Path file = folder.getRoot().toPath().resolve("org.snapshot");
+        OrgSnapshot.write(file, graph);
+        snapshot = OrgSnapshot.open(file);
+    }
+
+    @Test
+    public void testHierarchy() {
+        assertEquals(graph.size(), snapshot.size());
+        for (String id : Arrays.asList("root", "A", "B", "C", "D", "E", "F", "G")) {
+            assertEquals(id, snapshot.id(snapshot.ordinal(id)));
+            assertEquals(graph.countReports(id), snapshot.countReports(id));
+            assertEquals(new HashSet<>(graph.reports(id)), new HashSet<>(snapshot.reports(id)));
+            assertEquals(graph.managementPaths(id), snapshot.managementPaths(id));
+        }
+
+        assertEquals(-1, snapshot.ordinal("unknown"));
+        assertEquals(0, snapshot.countReports("unknown"));
+        assertEquals(Collections.emptyList(), snapshot.reports("unknown"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenInvalid() throws IOException {
+        Path file = folder.newFile("invalid.snapshot").toPath();
+        Files.write(file, new byte[64]);
+        OrgSnapshot.open(file);
+    }
+}
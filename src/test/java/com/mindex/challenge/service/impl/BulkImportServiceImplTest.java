@@ -0,0 +1,99 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.dao.CompensationRepository;
+import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.BulkImportResult;
+import com.mindex.challenge.service.BulkImportService;
+import com.mindex.challenge.service.EmployeeService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class BulkImportServiceImplTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CompensationRepository compensationRepository;
+
+    @Test
+    public void testImportEmployees() throws IOException {
+        String manager = UUID.randomUUID().toString();
+        String report = UUID.randomUUID().toString();
+        String json = "[" +
+                "{\"employeeId\": \"" + manager + "\", \"firstName\": \"John\", \"directReports\": [{\"employeeId\": \"" + report + "\"}]}," +
+                "{\"firstName\": \"No id\"}," +
+                "{\"employeeId\": \"" + report + "\", \"firstName\": \"Paul\"}," +
+                "{\"employeeId\": \"" + report + "\", \"firstName\": \"Duplicate\"}," +
+                "{\"employeeId\": \"" + UUID.randomUUID() + "\", \"directReports\": \"not a list\"}" +
+                "]";
+
+        BulkImportResult result = bulkImportService.importEmployees(stream(json));
+
+        assertEquals(5, result.getReceived());
+        assertEquals(2, result.getInserted());
+        assertEquals(3, result.getFailed());
+        assertFalse(result.isAborted());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals(3, result.getErrors().get(1).getIndex());
+        assertEquals(report, result.getErrors().get(1).getEmployeeId());
+        assertEquals(4, result.getErrors().get(2).getIndex());
+
+        assertEquals("Paul", employeeRepository.findByEmployeeId(report).getFirstName());
+        assertEquals(1, employeeService.numberOfReports(manager).intValue());
+    }
+
+    @Test
+    public void testImportEmployees_malformed_json() throws IOException {
+        String id = UUID.randomUUID().toString();
+
+        BulkImportResult result = bulkImportService.importEmployees(stream("[{\"employeeId\": \"" + id + "\"}, {\"employeeId\": "));
+
+        assertTrue(result.isAborted());
+        assertEquals(1, result.getInserted());
+        assertNotNull(employeeRepository.findByEmployeeId(id));
+    }
+
+    @Test
+    public void testImportCompensations() throws IOException {
+        String id = UUID.randomUUID().toString();
+        String json = "[" +
+                "{\"employeeId\": \"" + id + "\", \"salary\": 1000, \"effectiveDate\": \"2020-01-12T00:00:00.000+0000\"}," +
+                "{\"employeeId\": \"" + id + "\", \"salary\": 2000, \"effectiveDate\": \"2022-01-12T00:00:00.000+0000\"}," +
+                "{\"employeeId\": \"" + id + "\", \"salary\": 3000}" +
+                "]";
+
+        BulkImportResult result = bulkImportService.importCompensations(stream(json));
+
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals("effectiveDate is required", result.getErrors().get(0).getMessage());
+        assertEquals(2, compensationRepository.findAllByEmployeeId(id).size());
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,7 +1,12 @@
 package com.mindex.challenge.service.impl;
 
+import com.mindex.challenge.dao.CompensationRepository;
 import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.CompensationPage;
+import com.mindex.challenge.data.CompensationRollup;
+import com.mindex.challenge.data.Employee;
 import com.mindex.challenge.service.CompensationService;
+import com.mindex.challenge.service.EmployeeService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -9,12 +14,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -22,10 +38,20 @@ public class CompensationServiceImplTest {
 
     private String compensationUrl;
     private String compensationIdUrl;
+    private String currentCompensationUrl;
+    private String compensationRollupUrl;
+    private String compensationPageUrl;
+    private String compensationStreamUrl;
 
     @Autowired
     private CompensationService compensationService;
 
+    @Autowired
+    private CompensationRepository compensationRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
     @LocalServerPort
     private int port;
 
@@ -36,6 +62,10 @@ public class CompensationServiceImplTest {
     public void setup() {
         compensationUrl = "http://localhost:" + port + "/compensation";
         compensationIdUrl = "http://localhost:" + port + "/compensation/{id}";
+        currentCompensationUrl = "http://localhost:" + port + "/compensation/{id}/current?asOf={asOf}";
+        compensationRollupUrl = "http://localhost:" + port + "/employee/{id}/compensationRollup?asOf={asOf}";
+        compensationPageUrl = "http://localhost:" + port + "/compensation/{id}/page?size=2";
+        compensationStreamUrl = "http://localhost:" + port + "/compensation/{id}/stream";
     }
 
     @Test
@@ -62,6 +92,115 @@ public class CompensationServiceImplTest {
         assertCompensationEquivalence(testCompensation, createdCompensation);
     }
 
+    @Test
+    public void testReadCurrent() {
+        String employeeId = UUID.randomUUID().toString();
+        restTemplate.postForEntity(compensationUrl, new Compensation(employeeId, new Date("01/12/2020"), 1000D), Compensation.class);
+        restTemplate.postForEntity(compensationUrl, new Compensation(employeeId, new Date("01/12/2022"), 3000D), Compensation.class);
+
+        assertEquals(1000D, restTemplate.getForEntity(currentCompensationUrl, Compensation.class, employeeId, "2021-06-01").getBody().getSalary(), 0);
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(currentCompensationUrl, String.class, employeeId, "2019-01-01").getStatusCode());
+
+        // Creating a compensation evicts the cached timeline
+        restTemplate.postForEntity(compensationUrl, new Compensation(employeeId, new Date("01/12/2021"), 2000D), Compensation.class);
+
+        assertEquals(2000D, restTemplate.getForEntity(currentCompensationUrl, Compensation.class, employeeId, "2021-06-01").getBody().getSalary(), 0);
+        assertEquals(3000D, restTemplate.getForEntity(currentCompensationUrl, Compensation.class, employeeId, "2030-01-01").getBody().getSalary(), 0);
+        assertEquals(2000D, compensationRepository.findFirstByEmployeeIdAndEffectiveDateLessThanEqualOrderByEffectiveDateDesc(
+                employeeId, new Date("06/01/2021")).getSalary(), 0);
+    }
+
+    @Test
+    public void testConditionalRead() {
+        String employeeId = UUID.randomUUID().toString();
+        compensationService.create(new Compensation(employeeId, new Date("01/12/2020"), 1000D));
+
+        String eTag = restTemplate.getForEntity(compensationIdUrl, Compensation[].class, employeeId).getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        assertEquals(HttpStatus.NOT_MODIFIED, restTemplate.exchange(compensationIdUrl, HttpMethod.GET, new HttpEntity<>(headers),
+                String.class, employeeId).getStatusCode());
+
+        compensationService.create(new Compensation(employeeId, new Date("01/12/2021"), 2000D));
+        assertEquals(HttpStatus.OK, restTemplate.exchange(compensationIdUrl, HttpMethod.GET, new HttpEntity<>(headers),
+                String.class, employeeId).getStatusCode());
+    }
+
+    @Test
+    public void testReadPage() {
+        String employeeId = UUID.randomUUID().toString();
+        for (int year = 2020; year < 2025; year++) {
+            compensationService.create(new Compensation(employeeId, new Date("01/12/" + year), year * 10D));
+        }
+
+        CompensationPage page = restTemplate.getForEntity(compensationPageUrl, CompensationPage.class, employeeId).getBody();
+        assertEquals(Arrays.asList(20200D, 20210D), salaries(page));
+
+        page = restTemplate.getForEntity(compensationPageUrl + "&cursor={cursor}", CompensationPage.class, employeeId, page.getNextCursor()).getBody();
+        assertEquals(Arrays.asList(20220D, 20230D), salaries(page));
+
+        page = restTemplate.getForEntity(compensationPageUrl + "&cursor={cursor}", CompensationPage.class, employeeId, page.getNextCursor()).getBody();
+        assertEquals(Collections.singletonList(20240D), salaries(page));
+        assertNull(page.getNextCursor());
+
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(compensationPageUrl + "&cursor=invalid!", String.class, employeeId).getStatusCode());
+    }
+
+    @Test
+    public void testStream() {
+        String employeeId = UUID.randomUUID().toString();
+        compensationService.create(new Compensation(employeeId, new Date("01/12/2022"), 2000D));
+        compensationService.create(new Compensation(employeeId, new Date("01/12/2020"), 1000D));
+
+        String[] lines = restTemplate.getForEntity(compensationStreamUrl, String.class, employeeId).getBody().split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"salary\":1000.0"));
+        assertTrue(lines[1].contains("\"salary\":2000.0"));
+    }
+
+    @Test
+    public void testRollup() {
+        //     manager
+        //      /   \
+        //     A     B
+        //     |
+        //     C
+        Employee manager = employeeService.create(new Employee());
+        Employee a = employeeService.create(new Employee());
+        Employee b = employeeService.create(new Employee());
+        Employee c = employeeService.create(new Employee());
+        manager.setDirectReports(Arrays.asList(a, b));
+        a.setDirectReports(Collections.singletonList(c));
+        employeeService.update(manager);
+        employeeService.update(a);
+
+        compensationService.create(new Compensation(a.getEmployeeId(), new Date("01/12/2020"), 100D));
+        compensationService.create(new Compensation(b.getEmployeeId(), new Date("01/12/2019"), 150D));
+        compensationService.create(new Compensation(b.getEmployeeId(), new Date("01/12/2020"), 200D));
+        compensationService.create(new Compensation(c.getEmployeeId(), new Date("01/12/2020"), 300D));
+        compensationService.create(new Compensation(c.getEmployeeId(), new Date("01/12/2030"), 900D));
+
+        CompensationRollup rollup = restTemplate.getForEntity(compensationRollupUrl, CompensationRollup.class,
+                manager.getEmployeeId(), "2021-06-01").getBody();
+
+        assertEquals(3, rollup.getNumberOfReports().intValue());
+        assertEquals(3, rollup.getCompensatedReports().intValue());
+        assertEquals(600D, rollup.getTotalSalary(), 0);
+        assertEquals(200D, rollup.getMeanSalary(), 0);
+        assertEquals(200D, rollup.getSalaryPercentiles().get("p50"), 0);
+        assertEquals(300D, rollup.getSalaryPercentiles().get("p99"), 0);
+
+        rollup = restTemplate.getForEntity(compensationRollupUrl, CompensationRollup.class, a.getEmployeeId(), "2019-06-01").getBody();
+        assertEquals(1, rollup.getNumberOfReports().intValue());
+        assertEquals(0, rollup.getCompensatedReports().intValue());
+        assertEquals(0D, rollup.getTotalSalary(), 0);
+    }
+
+    private static List<Double> salaries(CompensationPage page) {
+        return page.getCompensations().stream().map(Compensation::getSalary).collect(Collectors.toList());
+    }
+
     private static void assertCompensationEquivalence(Compensation expected, Compensation actual) {
         assertEquals(expected.getEffectiveDate(), actual.getEffectiveDate());
         assertEquals(expected.getSalary(), actual.getSalary());
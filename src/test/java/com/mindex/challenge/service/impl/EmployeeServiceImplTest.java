@@ -1,6 +1,12 @@
 package com.mindex.challenge.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mindex.challenge.config.CacheConfig;
 import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeeBatchResult;
+import com.mindex.challenge.data.ManagementChain;
 import com.mindex.challenge.data.ReportingStructure;
 import com.mindex.challenge.service.EmployeeService;
 import org.junit.Before;
@@ -10,18 +16,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -29,7 +44,10 @@ public class EmployeeServiceImplTest {
 
     private String employeeUrl;
     private String employeeIdUrl;
+    private String employeeBatchUrl;
     private String reportingStructureUrl;
+    private String reportingTreeUrl;
+    private String managementChainUrl;
 
     @Autowired
     private EmployeeService employeeService;
@@ -40,11 +58,17 @@ public class EmployeeServiceImplTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Before
     public void setup() {
         employeeUrl = "http://localhost:" + port + "/employee";
         employeeIdUrl = "http://localhost:" + port + "/employee/{id}";
+        employeeBatchUrl = "http://localhost:" + port + "/employee/_batch";
         reportingStructureUrl = "http://localhost:" + port + "/employee/{id}/reportingStructure";
+        reportingTreeUrl = "http://localhost:" + port + "/employee/{id}/reportingStructure/tree";
+        managementChainUrl = "http://localhost:" + port + "/employee/{id}/managementChain";
     }
 
     @Test
@@ -79,6 +103,57 @@ public class EmployeeServiceImplTest {
         assertEmployeeEquivalence(readEmployee, updatedEmployee);
     }
 
+    @Test
+    public void testReadBatch() {
+        Employee first = restTemplate.postForEntity(employeeUrl, new Employee(), Employee.class).getBody();
+        Employee second = restTemplate.postForEntity(employeeUrl, new Employee(), Employee.class).getBody();
+        // Evict one employee, so the batch is served partly from the cache and partly from the database
+        cacheManager.getCache(CacheConfig.EMPLOYEES).evict(second.getEmployeeId());
+
+        EmployeeBatchResult[] results = restTemplate.postForEntity(employeeBatchUrl,
+                Arrays.asList(second.getEmployeeId(), "unknown", first.getEmployeeId()), EmployeeBatchResult[].class).getBody();
+
+        assertEquals(3, results.length);
+        assertEquals(second.getEmployeeId(), results[0].getEmployeeId());
+        assertTrue(results[0].isFound());
+        assertEquals(second.getEmployeeId(), results[0].getEmployee().getEmployeeId());
+        assertEquals("unknown", results[1].getEmployeeId());
+        assertFalse(results[1].isFound());
+        assertNull(results[1].getEmployee());
+        assertEquals(first.getEmployeeId(), results[2].getEmployee().getEmployeeId());
+    }
+
+    @Test
+    public void testReadBatch_rejects_invalid_batches() {
+        ResponseEntity<String> nullId = restTemplate.postForEntity(employeeBatchUrl, Arrays.asList("unknown", null), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, nullId.getStatusCode());
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            ids.add("unknown" + i);
+        }
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.postForEntity(employeeBatchUrl, ids, String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity(employeeBatchUrl, ids.subList(0, 1000), String.class).getStatusCode());
+    }
+
+    @Test
+    public void testReadIsCached() {
+        Employee createdEmployee = restTemplate.postForEntity(employeeUrl, new Employee(), Employee.class).getBody();
+        CacheStats before = employeeCacheStats();
+
+        restTemplate.getForEntity(employeeIdUrl, Employee.class, createdEmployee.getEmployeeId());
+        restTemplate.getForEntity(employeeIdUrl, Employee.class, createdEmployee.getEmployeeId());
+
+        // Employee is cached on create, so both reads are hits
+        assertEquals(2, employeeCacheStats().minus(before).hitCount());
+
+        // Update replaces the cached employee
+        createdEmployee.setPosition("Development Manager");
+        updateEmployee(createdEmployee);
+        Employee readEmployee = restTemplate.getForEntity(employeeIdUrl, Employee.class, createdEmployee.getEmployeeId()).getBody();
+        assertEquals("Development Manager", readEmployee.getPosition());
+    }
+
     @Test
     public void testNumberOfReports() {
         Employee root = createEmployeeGraph();
@@ -114,6 +189,167 @@ public class EmployeeServiceImplTest {
         assertEmployeeEquivalence(root, actualReportingStructure.getEmployee());
     }
 
+    @Test
+    public void testNumberOfReports_after_descendant_update() {
+        Employee root = createEmployeeGraph();
+        Employee root_A = root.getDirectReports().get(0);
+        Employee root_A_D = root_A.getDirectReports().get(1);
+
+        assertEquals(7, restTemplate.getForEntity(reportingStructureUrl, ReportingStructure.class, root.getEmployeeId()).getBody().getNumberOfReports().intValue());
+        assertEquals(4, restTemplate.getForEntity(reportingStructureUrl, ReportingStructure.class, root_A.getEmployeeId()).getBody().getNumberOfReports().intValue());
+
+        // Removing direct reports of D must invalidate cached counts of all its ancestors
+        root_A_D.setDirectReports(new ArrayList<>());
+        updateEmployee(root_A_D);
+
+        assertEquals(5, restTemplate.getForEntity(reportingStructureUrl, ReportingStructure.class, root.getEmployeeId()).getBody().getNumberOfReports().intValue());
+        assertEquals(2, restTemplate.getForEntity(reportingStructureUrl, ReportingStructure.class, root_A.getEmployeeId()).getBody().getNumberOfReports().intValue());
+    }
+
+    @Test
+    public void testReportingTree() {
+        Employee root = createEmployeeGraph();
+        Employee root_A = root.getDirectReports().get(0);
+        Employee root_A_D = root_A.getDirectReports().get(1);
+
+        JsonNode tree = restTemplate.getForEntity(reportingTreeUrl, JsonNode.class, root.getEmployeeId()).getBody();
+
+        assertEquals(7, tree.get("numberOfReports").asInt());
+        JsonNode treeA = tree.get("employee").get("directReports").get(0);
+        assertEquals(root_A.getEmployeeId(), treeA.get("employeeId").asText());
+        JsonNode treeD = treeA.get("directReports").get(1);
+        assertEquals(root_A_D.getEmployeeId(), treeD.get("employeeId").asText());
+        assertEquals(2, treeD.get("directReports").size());
+
+        // Depth and field projection
+        tree = restTemplate.getForEntity(reportingTreeUrl + "?maxDepth=1&fields=position", JsonNode.class, root.getEmployeeId()).getBody();
+
+        JsonNode employee = tree.get("employee");
+        assertEquals(2, employee.get("directReports").size());
+        assertNotNull(employee.get("position"));
+        assertNull(employee.get("firstName"));
+        assertNull(employee.get("directReports").get(0).get("directReports"));
+    }
+
+    @Test
+    public void testManagementChain() {
+        Employee root = createEmployeeGraphWithMultipleParents();
+        Employee root_A = root.getDirectReports().get(0);
+        Employee root_B = root.getDirectReports().get(1);
+        Employee root_B_E = root_B.getDirectReports().get(0);
+
+        ManagementChain managementChain = restTemplate.getForEntity(managementChainUrl, ManagementChain.class, root_B_E.getEmployeeId()).getBody();
+
+        assertEquals(root_B_E.getEmployeeId(), managementChain.getEmployee().getEmployeeId());
+        assertEquals(Arrays.asList(
+                Arrays.asList(root_B.getEmployeeId(), root.getEmployeeId()),
+                Arrays.asList(root_B.getEmployeeId(), root_A.getEmployeeId(), root.getEmployeeId())), managementChain.getPaths());
+
+        managementChain = restTemplate.getForEntity(managementChainUrl, ManagementChain.class, root.getEmployeeId()).getBody();
+        assertEquals(Collections.emptyList(), managementChain.getPaths());
+    }
+
+    @Test
+    public void testConditionalRequests() {
+        //  manager
+        //     |
+        //   report
+        Employee manager = employeeService.create(new Employee());
+        Employee report = employeeService.create(new Employee());
+
+        String employeeETag = restTemplate.getForEntity(employeeIdUrl, Employee.class, report.getEmployeeId()).getHeaders().getETag();
+        String structureETag = restTemplate.getForEntity(reportingStructureUrl, ReportingStructure.class, manager.getEmployeeId())
+                .getHeaders().getETag();
+        assertNotNull(employeeETag);
+        assertNotNull(structureETag);
+
+        ResponseEntity<String> notModified = conditionalGet(employeeIdUrl, report.getEmployeeId(), employeeETag);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(HttpStatus.NOT_MODIFIED, conditionalGet(reportingStructureUrl, manager.getEmployeeId(), structureETag).getStatusCode());
+
+        // A change below the manager changes its reporting structure but not the employee itself
+        manager.setDirectReports(Collections.singletonList(report));
+        updateEmployee(manager);
+        assertEquals(HttpStatus.NOT_MODIFIED, conditionalGet(employeeIdUrl, report.getEmployeeId(), employeeETag).getStatusCode());
+        ResponseEntity<String> modified = conditionalGet(reportingStructureUrl, manager.getEmployeeId(), structureETag);
+        assertEquals(HttpStatus.OK, modified.getStatusCode());
+        assertFalse(structureETag.equals(modified.getHeaders().getETag()));
+
+        report.setFirstName("Changed");
+        updateEmployee(report);
+        assertEquals(HttpStatus.OK, conditionalGet(employeeIdUrl, report.getEmployeeId(), employeeETag).getStatusCode());
+        assertEquals(HttpStatus.OK, conditionalGet(reportingStructureUrl, manager.getEmployeeId(), modified.getHeaders().getETag())
+                .getStatusCode());
+    }
+
+    @Test
+    public void testConditionalRequests_unknown_id() {
+        String id = "unknown-employee";
+
+        ResponseEntity<String> employee = restTemplate.getForEntity(employeeIdUrl, String.class, id);
+        assertEquals(HttpStatus.BAD_REQUEST, employee.getStatusCode());
+        assertNull(employee.getHeaders().getETag());
+        ResponseEntity<String> structure = restTemplate.getForEntity(reportingStructureUrl, String.class, id);
+        assertEquals(HttpStatus.BAD_REQUEST, structure.getStatusCode());
+        assertNull(structure.getHeaders().getETag());
+
+        // A wildcard matches any current version, but an unknown id has none
+        assertEquals(HttpStatus.BAD_REQUEST, conditionalGet(employeeIdUrl, id, "*").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, conditionalGet(reportingStructureUrl, id, "*").getStatusCode());
+    }
+
+    @Test
+    public void testContentNegotiationAndCompression() throws Exception {
+        Employee manager = employeeService.create(new Employee());
+        List<Employee> reports = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Employee report = new Employee();
+            report.setFirstName("First" + i);
+            report.setLastName("Last" + i);
+            report.setPosition("Developer");
+            report.setDepartment("Engineering");
+            reports.add(employeeService.create(report));
+        }
+        manager.setDirectReports(reports);
+        employeeService.update(manager);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.valueOf("application/x-jackson-smile")));
+        ResponseEntity<byte[]> smile = restTemplate.exchange(employeeIdUrl, HttpMethod.GET, new HttpEntity<>(headers),
+                byte[].class, manager.getEmployeeId());
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+
+        assertEquals("application/x-jackson-smile", smile.getHeaders().getContentType().toString());
+        assertEquals(50, smileMapper.readValue(smile.getBody(), Employee.class).getDirectReports().size());
+
+        ResponseEntity<byte[]> smileTree = restTemplate.exchange(reportingTreeUrl, HttpMethod.GET, new HttpEntity<>(headers),
+                byte[].class, manager.getEmployeeId());
+        assertEquals(50, smileMapper.readTree(smileTree.getBody()).get("numberOfReports").asInt());
+
+        headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> gzipTree = restTemplate.exchange(reportingTreeUrl, HttpMethod.GET, new HttpEntity<>(headers),
+                byte[].class, manager.getEmployeeId());
+        assertEquals("gzip", gzipTree.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        // Reads with a weak ETag are compressed too, and still revalidate with the ETag
+        ResponseEntity<byte[]> gzipEmployee = restTemplate.exchange(employeeIdUrl, HttpMethod.GET, new HttpEntity<>(headers),
+                byte[].class, manager.getEmployeeId());
+        String eTag = gzipEmployee.getHeaders().getETag();
+        assertNotNull(eTag);
+        assertTrue(eTag.startsWith("W/"));
+        assertEquals("gzip", gzipEmployee.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpStatus.NOT_MODIFIED, conditionalGet(employeeIdUrl, manager.getEmployeeId(), eTag).getStatusCode());
+    }
+
+    private ResponseEntity<String> conditionalGet(String url, String id, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class, id);
+    }
+
     private Employee updateEmployee(Employee input) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -125,6 +361,10 @@ public class EmployeeServiceImplTest {
                 input.getEmployeeId()).getBody();
     }
 
+    private CacheStats employeeCacheStats() {
+        return ((CaffeineCache) cacheManager.getCache(CacheConfig.EMPLOYEES)).getNativeCache().stats();
+    }
+
     private static void assertEmployeeEquivalence(Employee expected, Employee actual) {
         assertEquals(expected.getFirstName(), actual.getFirstName());
         assertEquals(expected.getLastName(), actual.getLastName());
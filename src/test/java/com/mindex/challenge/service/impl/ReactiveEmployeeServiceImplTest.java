@@ -0,0 +1,67 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.ReportingStructure;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+public class ReactiveEmployeeServiceImplTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void testCreateReadReportingStructure() {
+        Employee report = create(new Employee());
+        Employee manager = new Employee();
+        manager.setFirstName("Jane");
+        manager = create(manager);
+        assertNotNull(manager.getEmployeeId());
+
+        manager.setDirectReports(Collections.singletonList(report));
+        webTestClient.put().uri("/employee/{id}", manager.getEmployeeId()).bodyValue(manager)
+                .exchange().expectStatus().isOk();
+
+        Employee readEmployee = webTestClient.get().uri("/employee/{id}", manager.getEmployeeId())
+                .exchange().expectStatus().isOk().expectBody(Employee.class).returnResult().getResponseBody();
+        assertEquals("Jane", readEmployee.getFirstName());
+
+        ReportingStructure reportingStructure = webTestClient.get().uri("/employee/{id}/reportingStructure", manager.getEmployeeId())
+                .exchange().expectStatus().isOk().expectBody(ReportingStructure.class).returnResult().getResponseBody();
+        assertEquals(1, reportingStructure.getNumberOfReports().intValue());
+
+        webTestClient.get().uri("/employee/{id}", "invalid").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testReadCurrentCompensation() {
+        webTestClient.post().uri("/compensation").bodyValue(new Compensation("reactiveId", new Date("01/12/2020"), 1000D))
+                .exchange().expectStatus().isOk();
+
+        Compensation current = webTestClient.get().uri("/compensation/{id}/current?asOf=2021-01-01", "reactiveId")
+                .exchange().expectStatus().isOk().expectBody(Compensation.class).returnResult().getResponseBody();
+        assertEquals(1000D, current.getSalary(), 0);
+
+        webTestClient.get().uri("/compensation/{id}/current?asOf=2019-01-01", "reactiveId").exchange().expectStatus().isNotFound();
+    }
+
+    private Employee create(Employee employee) {
+        return webTestClient.post().uri("/employee").bodyValue(employee)
+                .exchange().expectStatus().isOk().expectBody(Employee.class).returnResult().getResponseBody();
+    }
+}